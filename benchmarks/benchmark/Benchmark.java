@@ -0,0 +1,197 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Small harness to measure the throughput of an operation: after a warmup, the operation is
+ * run in a loop for several measurement iterations of a fixed time, the time per operation and the
+ * memory allocated per operation (by the measuring thread) are reported.
+ * The results of the operation are consumed so the JIT cannot remove the calls
+ *
+ * @author Hillel, Yona
+ */
+public final class Benchmark {
+
+    /**
+     * An operation to measure
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Run the operation once
+         *
+         * @param i number of the call, to pick the input of the call
+         * @return the result of the call, consumed by the harness
+         */
+        Object run(int i);
+    }
+
+    /**
+     * Result of a benchmark
+     */
+    public static final class Result {
+        /**
+         * Name of the benchmark
+         */
+        public final String name;
+        /**
+         * Mean time of an operation (ns)
+         */
+        public final double nsPerOp;
+        /**
+         * Half width of the 99.9% interval of the mean time of an operation (ns)
+         */
+        public final double nsError;
+        /**
+         * Memory allocated by an operation (bytes), -1 if it cannot be measured
+         */
+        public final double bytesPerOp;
+        /**
+         * Number of measured operations
+         */
+        public final long operations;
+
+        private Result(String name, double nsPerOp, double nsError, double bytesPerOp, long operations) {
+            this.name = name;
+            this.nsPerOp = nsPerOp;
+            this.nsError = nsError;
+            this.bytesPerOp = bytesPerOp;
+            this.operations = operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %12.1f +- %9.1f ns/op %12.1f B/op", name, nsPerOp, nsError,
+                    bytesPerOp);
+        }
+    }
+
+    /**
+     * Thread bean of the JVM, to read the allocated bytes of the current thread
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = getThreadBean();
+
+    /**
+     * Sinks of the results of the operations: every result is stored, and the last one of a batch is
+     * published
+     */
+    private static Object last;
+    private static volatile Object sink;
+
+    /**
+     * Warmup time (ms)
+     */
+    private final long _warmupMillis;
+
+    /**
+     * Time of a measurement iteration (ms)
+     */
+    private final long _iterationMillis;
+
+    /**
+     * Number of measurement iterations
+     */
+    private final int _iterations;
+
+    /**
+     * Constructor
+     *
+     * @param warmupMillis    warmup time (ms)
+     * @param iterationMillis time of a measurement iteration (ms)
+     * @param iterations      number of measurement iterations
+     * @throws IllegalArgumentException if a time or the number of iterations is not positive
+     */
+    public Benchmark(long warmupMillis, long iterationMillis, int iterations) {
+        if (warmupMillis < 0 || iterationMillis <= 0 || iterations <= 0)
+            throw new IllegalArgumentException("Times and number of iterations must be positive");
+        _warmupMillis = warmupMillis;
+        _iterationMillis = iterationMillis;
+        _iterations = iterations;
+    }
+
+    /**
+     * Measure an operation
+     *
+     * @param name      name of the benchmark
+     * @param operation the operation
+     * @return the result
+     */
+    public Result run(String name, Operation operation) {
+        int counter = 0;
+        //warmup, so the measured code is compiled
+        long end = System.nanoTime() + _warmupMillis * 1_000_000;
+        while (System.nanoTime() < end)
+            counter = runBatch(operation, counter, 64);
+
+        //every iteration runs batches until its time is over
+        double[] nsPerOp = new double[_iterations];
+        long operations = 0;
+        long allocated = 0;
+        for (int iteration = 0; iteration < _iterations; ++iteration) {
+            long count = 0;
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            end = start + _iterationMillis * 1_000_000;
+            long now;
+            do {
+                counter = runBatch(operation, counter, 64);
+                count += 64;
+                now = System.nanoTime();
+            } while (now < end);
+            allocated += allocatedBytes() - bytes;
+            nsPerOp[iteration] = (double) (now - start) / count;
+            operations += count;
+        }
+
+        double mean = 0;
+        for (double value : nsPerOp)
+            mean += value;
+        mean /= _iterations;
+        double variance = 0;
+        for (double value : nsPerOp)
+            variance += (value - mean) * (value - mean);
+        //3.29 standard errors: 99.9% interval of the mean
+        double error = _iterations > 1 ? 3.29 * Math.sqrt(variance / (_iterations - 1) / _iterations) : Double.NaN;
+        double bytesPerOp = THREADS == null ? -1 : (double) allocated / operations;
+        return new Result(name, mean, error, bytesPerOp, operations);
+    }
+
+    /**
+     * Run the operation several times and consume the results
+     *
+     * @param operation the operation
+     * @param counter   number of the next call
+     * @param size      number of calls
+     * @return number of the call after the batch
+     */
+    private static int runBatch(Operation operation, int counter, int size) {
+        for (int i = 0; i < size; ++i)
+            last = operation.run(counter++);
+        sink = last;
+        return counter;
+    }
+
+    /**
+     * Get the memory allocated by the current thread since its start
+     *
+     * @return allocated bytes, 0 if it cannot be measured
+     */
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Get the thread bean of the JVM if it can measure the allocated memory
+     *
+     * @return the bean or null
+     */
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks of the ray tracer. The project has no build tool, so the benchmarks
+ * run from the compiled classes:
+ * <pre>
+ * javac -d out $(find src benchmarks -name '*.java')
+ * java -cp out benchmark.BenchmarkRunner [name filter...]
+ * </pre>
+ * Only the benchmarks whose name contains one of the filters run (all of them without filter).
+ * The times are set by the system properties bench.warmup and bench.time (ms, defaults 1000) and
+ * bench.iterations (default 5)
+ *
+ * @author Hillel, Yona
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The harness
+     */
+    private final Benchmark _benchmark;
+
+    /**
+     * Filters of the names of the benchmarks to run, empty to run all of them
+     */
+    private final String[] _filters;
+
+    /**
+     * Results of the benchmarks that ran
+     */
+    private final List<Benchmark.Result> _results = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param benchmark the harness
+     * @param filters   filters of the names of the benchmarks to run, empty to run all of them
+     */
+    public BenchmarkRunner(Benchmark benchmark, String... filters) {
+        _benchmark = benchmark;
+        _filters = filters;
+    }
+
+    /**
+     * Run a benchmark if its name passes the filters and print its result
+     *
+     * @param name      name of the benchmark
+     * @param operation the measured operation
+     */
+    public void run(String name, Benchmark.Operation operation) {
+        if (!isSelected(name))
+            return;
+        Benchmark.Result result = _benchmark.run(name, operation);
+        _results.add(result);
+        System.out.println(result);
+    }
+
+    /**
+     * Get the results of the benchmarks that ran
+     *
+     * @return the results
+     */
+    public List<Benchmark.Result> getResults() {
+        return _results;
+    }
+
+    /**
+     * Check if a benchmark passes the filters
+     *
+     * @param name name of the benchmark
+     * @return true if it must run
+     */
+    private boolean isSelected(String name) {
+        if (_filters.length == 0)
+            return true;
+        for (String filter : _filters)
+            if (name.contains(filter))
+                return true;
+        return false;
+    }
+
+    /**
+     * Run the benchmarks
+     *
+     * @param args filters of the names of the benchmarks to run
+     */
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark(Long.getLong("bench.warmup", 1000), Long.getLong("bench.time", 1000),
+                Integer.getInteger("bench.iterations", 5));
+        BenchmarkRunner runner = new BenchmarkRunner(benchmark, args);
+        System.out.printf("%-40s %12s    %9s       %12s%n", "Benchmark", "Time", "Error", "Allocation");
+        IntersectionBenchmarks.run(runner);
+        RenderingBenchmarks.run(runner);
+    }
+}
@@ -0,0 +1,125 @@
+package benchmark;
+
+import geometries.*;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks of the intersections: {@link Intersectable#findGeoIntersections(Ray)} of every kind of
+ * shape, and the closest intersection and the transparency in a {@link Geometries} with the
+ * bounding volume hierarchy.
+ * Every benchmark goes through a fixed pool of random rays aimed around the shapes, so both hits and
+ * misses are measured
+ *
+ * @author Hillel, Yona
+ */
+public final class IntersectionBenchmarks {
+
+    /**
+     * Number of rays in the pool (power of 2)
+     */
+    private static final int RAY_COUNT = 1024;
+
+    /**
+     * Number of shapes in the scene of the hierarchy
+     */
+    private static final int SCENE_SIZE = 1000;
+
+    private IntersectionBenchmarks() {
+    }
+
+    /**
+     * Run the benchmarks
+     *
+     * @param runner runner of the benchmarks
+     */
+    public static void run(BenchmarkRunner runner) {
+        Ray[] rays = createRays(new Random(1));
+
+        runShape(runner, "Sphere", new Sphere(1, new Point3D(0, 0, 0)), rays);
+        runShape(runner, "Triangle", new Triangle(new Point3D(-1, -1, 0), new Point3D(1, -1, 0),
+                new Point3D(0, 1, 0)), rays);
+        runShape(runner, "Polygon", new Polygon(new Point3D(-1, -1, 0), new Point3D(1, -1, 0),
+                new Point3D(1, 1, 0), new Point3D(-1, 1, 0)), rays);
+        runShape(runner, "Plane", new Plane(new Point3D(0, 0, 0), new Vector(0, 0, 1)), rays);
+        runShape(runner, "Tube", new Tube(0.5, new Ray(new Point3D(0, 0, 0), new Vector(0, 1, 0))), rays);
+        runShape(runner, "Cylinder", new Cylinder(0.5, new Ray(new Point3D(0, -1, 0), new Vector(0, 1, 0)), 2),
+                rays);
+
+        Geometries scene = createScene(new Random(2));
+        Ray[] sceneRays = new Ray[RAY_COUNT];
+        Random random = new Random(3);
+        for (int i = 0; i < RAY_COUNT; ++i)
+            sceneRays[i] = new Ray(new Point3D(0, 0, 30),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+        scene.findClosestGeoIntersection(sceneRays[0]); //build the hierarchy before the measure
+        runner.run("Geometries.findClosestGeoIntersection",
+                i -> scene.findClosestGeoIntersection(sceneRays[i & (RAY_COUNT - 1)]));
+        runner.run("Geometries.findTransparency",
+                i -> scene.findTransparency(sceneRays[i & (RAY_COUNT - 1)], 40) < 1 ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    /**
+     * Measure the intersections of a shape
+     *
+     * @param runner runner of the benchmarks
+     * @param name   name of the shape
+     * @param shape  the shape
+     * @param rays   the rays
+     */
+    private static void runShape(BenchmarkRunner runner, String name, Intersectable shape, Ray[] rays) {
+        runner.run(name + ".findGeoIntersections", i -> shape.findGeoIntersections(rays[i & (RAY_COUNT - 1)]));
+    }
+
+    /**
+     * Create rays from random points around the origin to random points of the cube [-1.5, 1.5]^3
+     *
+     * @param random the random generator
+     * @return the rays
+     */
+    private static Ray[] createRays(Random random) {
+        Ray[] rays = new Ray[RAY_COUNT];
+        for (int i = 0; i < RAY_COUNT; ++i) {
+            Point3D target = randomPoint(random, 3);
+            Point3D head;
+            do
+                head = randomPoint(random, 10);
+            while (head.distance(target) < 3);
+            rays[i] = new Ray(head, target.subtract(head));
+        }
+        return rays;
+    }
+
+    /**
+     * Create a scene of spheres and triangles in the box [-10, 10]^2 x [-10, 0], with the hierarchy
+     *
+     * @param random the random generator
+     * @return the scene
+     */
+    private static Geometries createScene(Random random) {
+        List<Intersectable> shapes = new ArrayList<>(SCENE_SIZE);
+        for (int i = 0; i < SCENE_SIZE; ++i) {
+            Point3D center = new Point3D(20 * random.nextDouble() - 10, 20 * random.nextDouble() - 10,
+                    -10 * random.nextDouble());
+            Geometry shape = i % 2 == 0 ? new Sphere(0.2 + 0.3 * random.nextDouble(), center)
+                    : new Triangle(center, center.add(new Vector(0.5, 0, 0.1)), center.add(new Vector(0, 0.5, 0.2)));
+            shapes.add(shape.setMaterial(new Material().setkT(0.5)));
+        }
+        return new Geometries(shapes.toArray(new Intersectable[0])).setBVH(true);
+    }
+
+    /**
+     * Random point in a cube around the origin
+     *
+     * @param random the random generator
+     * @param size   size of the side of the cube
+     * @return the point
+     */
+    static Point3D randomPoint(Random random, double size) {
+        return new Point3D(size * (random.nextDouble() - 0.5), size * (random.nextDouble() - 0.5),
+                size * (random.nextDouble() - 0.5));
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import elements.*;
+import geometries.*;
+import primitives.*;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+/**
+ * Benchmarks of the rendering of a pixel: the construction of the ray through a pixel by the
+ * {@link Camera} and the tracing of the rays of the camera through a scene of spheres on a mirror
+ * floor lit by an area light, with and without the soft shadows
+ *
+ * @author Hillel, Yona
+ */
+public final class RenderingBenchmarks {
+
+    /**
+     * Resolution of the view plane
+     */
+    private static final int WIDTH = 256, HEIGHT = 256;
+
+    private RenderingBenchmarks() {
+    }
+
+    /**
+     * Run the benchmarks
+     *
+     * @param runner runner of the benchmarks
+     */
+    public static void run(BenchmarkRunner runner) {
+        Camera camera = new Camera.CameraBuilder(new Point3D(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setDistance(1000)
+                .build();
+        runner.run("Camera.constructRayThroughPixel",
+                i -> camera.constructRayThroughPixel(WIDTH, HEIGHT, i % WIDTH, (i / WIDTH) % HEIGHT));
+
+        //the rays of the camera are built once, only the tracing is measured
+        Ray[] rays = new Ray[WIDTH * HEIGHT];
+        for (int i = 0; i < HEIGHT; ++i)
+            for (int j = 0; j < WIDTH; ++j)
+                rays[i * WIDTH + j] = camera.constructRayThroughPixel(WIDTH, HEIGHT, j, i);
+        RayTracerBasic tracer = new RayTracerBasic(createScene());
+        runner.run("RayTracerBasic.traceRay", i -> tracer.traceRay(rays[i % rays.length], false));
+        runner.run("RayTracerBasic.traceRay(soft shadows)", i -> tracer.traceRay(rays[i % rays.length], true));
+        RayTracerBasic adaptiveTracer = new RayTracerBasic(createScene()).setAdaptiveSoftShadows(true);
+        runner.run("RayTracerBasic.traceRay(adaptive soft shadows)", i -> adaptiveTracer.traceRay(rays[i % rays.length], true));
+    }
+
+    /**
+     * Create the scene: spheres, transparent and opaque, over a mirror floor with an area spot light
+     *
+     * @return the scene
+     */
+    private static Scene createScene() {
+        Scene scene = new Scene.SceneBuilder("Benchmark scene")
+                .setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.15))
+                .build();
+        Material matte = new Material().setKd(0.5).setKs(0.5).setnShininess(30);
+        scene.geometries.add(
+                new Sphere(30, new Point3D(-40, -20, -100)).setEmission(new Color(java.awt.Color.BLUE))
+                        .setMaterial(matte),
+                new Sphere(30, new Point3D(40, -20, -100)).setEmission(new Color(java.awt.Color.RED))
+                        .setMaterial(new Material().setKd(0.2).setKs(0.2).setnShininess(30).setkT(0.6)),
+                new Polygon(new Point3D(-100, -50, 0), new Point3D(100, -50, 0), new Point3D(100, -50, -200),
+                        new Point3D(-100, -50, -200)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKd(0.3).setKs(0.3).setnShininess(60).setkR(0.5)),
+                new Triangle(new Point3D(-100, -50, -200), new Point3D(100, -50, -200), new Point3D(0, 80, -200))
+                        .setEmission(new Color(30, 60, 30)).setMaterial(matte));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point3D(0, 100, 0), new Vector(0, -1, -1), 10)
+                .setkL(4E-5).setkQ(2E-7));
+        return scene;
+    }
+}
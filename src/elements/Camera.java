@@ -2,6 +2,8 @@ package elements;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.SamplePattern;
+import primitives.Sampler;
 import primitives.Vector;
 
 import java.util.*;
@@ -16,11 +18,6 @@ import static primitives.Util.isZero;
  */
 public class Camera {
 
-    /**
-     * random variable used for stochastic ray creation
-     */
-    private final Random r = new Random();
-
     /**
      * Point of the camera position
      */
@@ -172,9 +169,9 @@ public class Camera {
         //move Point0 according to params
         Point3D myPoint = new Point3D(this._p0);
         if (up == 0 && right == 0 && to == 0) return; //don't create Vector.Zero
-        if (up != 0) myPoint = myPoint.add(_vUp.scale(up));
-        if (right != 0) myPoint = myPoint.add(_vRight.scale(right));
-        if (to != 0) myPoint = myPoint.add(_vTo.scale(to));
+        if (up != 0) myPoint = myPoint.add(_vUp, up);
+        if (right != 0) myPoint = myPoint.add(_vRight, right);
+        if (to != 0) myPoint = myPoint.add(_vTo, to);
         this._p0 = myPoint;
     }
 
@@ -204,7 +201,7 @@ public class Camera {
     public Ray constructRayThroughPixel(int nX, int nY, double j, double i) {
 
         //Pc = P0 + d * vTo
-        Point3D pc = _p0.add(_vTo.scale(_distance));
+        Point3D pc = _p0.add(_vTo, _distance);
         Point3D pIJ = pc;
 
         //Ry = height / nY : height of a pixel
@@ -217,53 +214,10 @@ public class Camera {
         double yI = alignZero(-(i - ((nY - 1) / 2d)) * rY);
 
         if (xJ != 0) {
-            pIJ = pIJ.add(_vRight.scale(xJ)); // move to the point
+            pIJ = pIJ.add(_vRight, xJ); // move to the point
         }
         if (yI != 0) {
-            pIJ = pIJ.add(_vUp.scale(yI)); // move to the point
-        }
-
-        //get vector from camera p0 to the point
-        Vector vIJ = pIJ.subtract(_p0);
-
-        //return ray to the center of the pixel
-        return new Ray(_p0, vIJ);
-
-    }
-
-    /**
-     * The function constructs a ray from Camera location through a point (i,j) on the grid of a
-     * pixel in the view plane
-     *
-     * @param m      grid's height
-     * @param n      grid's width
-     * @param j      number of the pixel in the row
-     * @param i      number of the pixel in the column
-     * @param pixelH height of the pixel
-     * @param pixelW width of the pixel
-     * @param pc     pixel center
-     * @return the ray through pixel's center
-     */
-    private Ray constructRayThroughPixel(int m, int n, double j, double i, double pixelH, double pixelW, Point3D pc) {
-
-        Point3D pIJ = pc;
-
-        //Ry = height / nY : height of a pixel
-        double rY = pixelH / n;
-        //Ry = weight / nX : width of a pixel
-        double rX = pixelW / m;
-        //xJ is the value of width we need to move from center to get to the point
-        //we get to the bottom/top of the pixel and then we move randomly in the pixel to get the point
-        double xJ = ((j + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((m - 1) / 2d)) * rX;
-        //yI is the value of height we need to move from center to get to the point
-        //we get to the side of the pixel and then we move randomly in the pixel to get the point
-        double yI = -((i + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((n - 1) / 2d)) * rY;
-
-        if (xJ != 0) {
-            pIJ = pIJ.add(_vRight.scale(xJ));
-        }
-        if (yI != 0) {
-            pIJ = pIJ.add(_vUp.scale(yI));
+            pIJ = pIJ.add(_vUp, yI); // move to the point
         }
 
         //get vector from camera p0 to the point
@@ -278,27 +232,36 @@ public class Camera {
      * This function get a ray launched in the center of a pixel and launch a beam n * m others rays
      * on the same pixel
      *
-     * @param nX  number of pixels in a row of view plane
-     * @param nY  number of pixels in a column of view plane
-     * @param n   number of the rays to launch in pixel
-     * @param m   number of the ray to launch in the pixel
-     * @param ray the ray that it is already launched in the center of the pixel
+     * @param nX      number of pixels in a row of view plane
+     * @param nY      number of pixels in a column of view plane
+     * @param n       number of the rays to launch in pixel
+     * @param m       number of the ray to launch in the pixel
+     * @param ray     the ray that it is already launched in the center of the pixel
+     * @param pattern pattern of the points in the pixel
+     * @param sampler random values of the pixel
      * @return list of rays when every ray is launched inside a pixel with random emplacement
      */
-    public List<Ray> constructRaysGridFromRay(int nX, int nY, int n, int m, Ray ray) {
+    public List<Ray> constructRaysGridFromRay(int nX, int nY, int n, int m, Ray ray, SamplePattern pattern, Sampler sampler) {
 
-        Point3D p0 = ray.getPoint(_distance); //center of the pixel
+        Point3D pc = ray.getPoint(_distance); //center of the pixel
         List<Ray> myRays = new LinkedList<>(); //to save all the rays
 
         double pixelHeight = alignZero(_height / nY);
-        double pixelHWidth = alignZero(_width / nX);
-
-        //We call the function constructRayThroughPixel like we used to but this time we launch m * n ray in the same pixel
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < m; j++) {
-                myRays.add(constructRayThroughPixel(m, n, j, i, pixelHeight, pixelHWidth, p0));
+        double pixelWidth = alignZero(_width / nX);
+
+        //launch a ray through every point of the pattern, the points are given in the unit square of the pixel
+        double[] points = pattern.generate(n, m, sampler);
+        for (int k = 0; k < points.length; k += 2) {
+            Point3D pIJ = pc;
+            double xJ = (points[k] - 0.5) * pixelWidth;
+            double yI = -(points[k + 1] - 0.5) * pixelHeight;
+            if (xJ != 0) {
+                pIJ = pIJ.add(_vRight, xJ);
             }
+            if (yI != 0) {
+                pIJ = pIJ.add(_vUp, yI);
+            }
+            myRays.add(new Ray(_p0, pIJ.subtract(_p0)));
         }
 
         return myRays;
@@ -309,65 +272,66 @@ public class Camera {
      * This function get a ray launched from the camera of a pixel and launch others rays
      * from all the aperture of the camera in direction of the point on the depth of field plane
      *
-     * @param n   height of the grid
-     * @param m   width of the grid
-     * @param ray the ray that it is already launched from the camera
-     * @return list of rays when every ray is launched from the grid inside a pixel with random emplacement
+     * @param n       height of the grid
+     * @param m       width of the grid
+     * @param ray     the ray that it is already launched from the camera
+     * @param pattern pattern of the points on the aperture
+     * @param sampler random values of the pixel
+     * @return list of rays when every ray is launched from the aperture with random emplacement
      */
-    public List<Ray> constructRaysGridFromCamera(int n, int m, Ray ray) {
+    public List<Ray> constructRaysGridFromCamera(int n, int m, Ray ray, SamplePattern pattern, Sampler sampler) {
 
         List<Ray> myRays = new LinkedList<>(); //to save all the rays
 
         Point3D point = getPointOnViewPlane(ray);
 
-        double pixelSize = alignZero((_dOFRadius * 2) / n);
-
-        //We call the function constructRayFromPixel like we used to but this time we launch m * n ray from the aperture grid
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < m; j++) {
-                Ray tmpRay = constructRayFromPixel(n, m, j, i, pixelSize, point);
-                //check that the point of base of the ray is inside the aperture circle
-                if (tmpRay.get_p0().equals(_p0)) { //to avoid vector ZERO
-                    myRays.add(tmpRay);
-                } else if (tmpRay.get_p0().distance(_p0) <= _dOFRadius) {
-                    myRays.add(tmpRay);
-                }
-            }
+        //every point of the pattern is mapped on the aperture circle, none of them is thrown away
+        double[] points = pattern.generate(n, m, sampler);
+        for (int k = 0; k < points.length; k += 2) {
+            Point3D pIJ = getPointOnAperture(points[k], points[k + 1]);
+            myRays.add(new Ray(pIJ, point.subtract(pIJ)));
         }
         return myRays;
     }
 
 
     /**
-     * This function returns a ray from a point in the aperture circle
+     * This function maps a point of the unit square on the aperture circle with the concentric
+     * mapping of Shirley and Chiu, which keeps the areas so a uniform pattern stays uniform
      *
-     * @param nX        grid's width
-     * @param nY        grid's height
-     * @param j         y emplacement of the point
-     * @param i         x emplacement of the point
-     * @param pixelSize size of side of the pixel on the grid
-     * @param point     point on the depth of field plane
-     * @return a ray to the point on the depth of field plane
+     * @param u x of the point in [0, 1)
+     * @param v y of the point in [0, 1)
+     * @return the point on the aperture
      */
-    private Ray constructRayFromPixel(int nX, int nY, double j, double i, double pixelSize, Point3D point) {
-
-        Point3D pIJ = new Point3D(_p0);
+    private Point3D getPointOnAperture(double u, double v) {
+        //move the point in [-1, 1)
+        double a = 2 * u - 1;
+        double b = 2 * v - 1;
+        if (a == 0 && b == 0) {
+            return _p0;
+        }
 
-        //get the emplacement of the base point of the ray
-        double xJ = ((j + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((nX - 1) / 2d)) * pixelSize;
-        double yI = -((i + r.nextDouble() / (r.nextBoolean() ? 2 : -2)) - ((nY - 1) / 2d)) * pixelSize;
+        //squares around the center are mapped on circles
+        double radius;
+        double phi;
+        if (a * a > b * b) {
+            radius = a;
+            phi = (Math.PI / 4) * (b / a);
+        } else {
+            radius = b;
+            phi = Math.PI / 2 - (Math.PI / 4) * (a / b);
+        }
 
+        Point3D pIJ = _p0;
+        double xJ = alignZero(radius * Math.cos(phi) * _dOFRadius);
+        double yI = alignZero(radius * Math.sin(phi) * _dOFRadius);
         if (xJ != 0) {
-            pIJ = pIJ.add(_vRight.scale(xJ));
+            pIJ = pIJ.add(_vRight, xJ);
         }
         if (yI != 0) {
-            pIJ = pIJ.add(_vUp.scale(yI));
+            pIJ = pIJ.add(_vUp, yI);
         }
-
-        Vector vIJ = point.subtract(pIJ);
-
-        return new Ray(pIJ, vIJ);
+        return pIJ;
     }
 
     /**
@@ -391,15 +355,15 @@ public class Camera {
         Point3D center = getPointOnViewPlane(myRay);
 
         //[-1/2, -1/2]
-        myRays.add( new Ray(_p0, center.add(_vRight.scale(-rX / 2)).add(_vUp.scale(rY / 2)).subtract(_p0)));
+        myRays.add( new Ray(_p0, center.add(_vRight, -rX / 2).add(_vUp, rY / 2).subtract(_p0)));
         //[1/2, -1/2]
-        myRays.add( new Ray(_p0, center.add(_vRight.scale(rX / 2)).add(_vUp.scale(rY / 2)).subtract(_p0)));
+        myRays.add( new Ray(_p0, center.add(_vRight, rX / 2).add(_vUp, rY / 2).subtract(_p0)));
 
         myRays.add(myRay);
         //[-1/2, 1/2]
-        myRays.add( new Ray(_p0, center.add(_vRight.scale(-rX / 2)).add(_vUp.scale(-rY / 2)).subtract(_p0)));
+        myRays.add( new Ray(_p0, center.add(_vRight, -rX / 2).add(_vUp, -rY / 2).subtract(_p0)));
         //[1/2, 1/2]
-        myRays.add( new Ray(_p0, center.add(_vRight.scale(rX / 2)).add(_vUp.scale(-rY / 2)).subtract(_p0)));
+        myRays.add( new Ray(_p0, center.add(_vRight, rX / 2).add(_vUp, -rY / 2).subtract(_p0)));
         return myRays;
     }
 
@@ -425,10 +389,10 @@ public class Camera {
         Point3D center = getPointOnViewPlane(ray);
         
         
-        Point3D point1 = center.add(_vUp.scale(height / 2));
-        Point3D point2 = center.add(_vRight.scale(-width / 2));
-        Point3D point3 = center.add(_vRight.scale(width / 2));
-        Point3D point4 = center.add(_vUp.scale(-height / 2));
+        Point3D point1 = center.add(_vUp, height / 2);
+        Point3D point2 = center.add(_vRight, -width / 2);
+        Point3D point3 = center.add(_vRight, width / 2);
+        Point3D point4 = center.add(_vUp, -height / 2);
         myRays.add(new Ray(_p0, point1.subtract(_p0)));
         myRays.add(new Ray(_p0, point2.subtract(_p0)));
         myRays.add(new Ray(_p0, point3.subtract(_p0)));
@@ -452,7 +416,7 @@ public class Camera {
 
   
         Point3D point = getPointOnViewPlane(ray);
-        point = point.add(_vRight.scale(width / 2)).add(_vUp.scale(-height / 2));
+        point = point.add(_vRight, width / 2).add(_vUp, -height / 2);
         return new Ray(_p0, point.subtract(_p0));
     }
 
@@ -31,6 +31,25 @@ public interface LightSource {
      */
     List<Vector> getListL(Point3D p);
 
+    /**
+     * Get the sample points spread on the area of the light for the soft shadows,
+     * they are computed once for all the shaded points
+     * @return the points as (x, y, z) triples or null if the light has no area
+     */
+    default double[] getSamplePoints() {
+        return null;
+    }
+
+    /**
+     * Get the few points of the light traced first for the adaptive soft shadows: when they
+     * all agree the point is fully lit or fully in the umbra and the sample points are not traced
+     * @param p the shaded point
+     * @return the points as (x, y, z) triples or null if the light has no area
+     */
+    default double[] getProbePoints(Point3D p) {
+        return null;
+    }
+
     /**
      * Get distance from the light to the point
      * @param point the point
@@ -4,9 +4,8 @@ import primitives.Color;
 import primitives.Point3D;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to implement a point light source of the scene
@@ -20,6 +19,45 @@ public class PointLight extends Light implements LightSource {
 
     protected double _radius;
 
+    /**
+     * Shapes on which the sample points of the soft shadows are spread
+     */
+    public enum SampleShape {
+        /**
+         * Horizontal disk (normal to the y axis) around the position
+         */
+        DISK,
+        /**
+         * Surface of the sphere around the position
+         */
+        SPHERE
+    }
+
+    /**
+     * Number of probe points on the outline of the light for the adaptive soft shadows
+     */
+    private static final int PROBES = 8;
+
+    /**
+     * Number of sample points of the light for the soft shadows
+     */
+    protected int _sampleCount = 64;
+
+    /**
+     * Shape on which the sample points are spread
+     */
+    protected SampleShape _sampleShape = SampleShape.DISK;
+
+    /**
+     * Sample points of the light as (x, y, z) triples, null for a light without radius
+     */
+    protected double[] _samplePoints;
+
+    /**
+     * Probe points of the disk (its rim and its center) as (x, y, z) triples, the same for every shaded point
+     */
+    protected double[] _diskProbePoints;
+
     /**
      * Parameters of the light
      */
@@ -43,6 +81,30 @@ public class PointLight extends Light implements LightSource {
         return this;
     }
 
+    /**
+     * Set the number of sample points of the light for the soft shadows
+     * @param sampleCount number of points
+     * @return the light itself
+     */
+    public PointLight setSampleCount(int sampleCount) {
+        if (sampleCount <= 0)
+            throw new IllegalArgumentException("Number of samples must be positive");
+        _sampleCount = sampleCount;
+        _samplePoints = buildSamplePoints();
+        return this;
+    }
+
+    /**
+     * Set the shape on which the sample points of the soft shadows are spread
+     * @param sampleShape the shape
+     * @return the light itself
+     */
+    public PointLight setSampleShape(SampleShape sampleShape) {
+        _sampleShape = sampleShape;
+        _samplePoints = buildSamplePoints();
+        return this;
+    }
+
     public PointLight(Color c, Point3D pos) {
         super(c);
         _position = new Point3D(pos);
@@ -52,6 +114,8 @@ public class PointLight extends Light implements LightSource {
         super(c);
         _position = new Point3D(pos);
         _radius = radius;
+        _samplePoints = buildSamplePoints();
+        _diskProbePoints = buildDiskProbePoints();
     }
 
     @Override
@@ -78,32 +142,104 @@ public class PointLight extends Light implements LightSource {
 
     @Override
     public List<Vector> getListL(Point3D p) {
-        Random r = new Random();
-        List<Vector> vectors = new LinkedList();
-        for (double i = -_radius; i < _radius; i += _radius / 10) {
-            for (double j = -_radius; j < _radius; j += _radius / 10) {
-                if (i != 0 && j != 0) {
-                    Point3D point = _position.add(new Vector(i, 0.1d, j));
-                    if (point.equals(_position)){
-                        vectors.add(p.subtract(point).normalized());
-                    }
-                    else{
-                        try{
-                            if (point.subtract(_position).dotProduct(point.subtract(_position)) <= _radius * _radius){
-                                vectors.add(p.subtract(point).normalized());
-                            }
-                        }
-                        catch (Exception e){
-                            vectors.add(p.subtract(point).normalized());
-                        }
-
-                    }
-                }
+        if (_samplePoints == null)
+            return List.of(getL(p));
+        List<Vector> vectors = new ArrayList<>(_sampleCount);
+        for (int i = 0; i < _samplePoints.length; i += 3) {
+            Point3D point = new Point3D(_samplePoints[i], _samplePoints[i + 1], _samplePoints[i + 2]);
+            if (!point.equals(p))
+                vectors.add(p.subtract(point).normalized());
+        }
+        return vectors;
+    }
+
+    @Override
+    public double[] getSamplePoints() {
+        return _samplePoints;
+    }
+
+    @Override
+    public double[] getProbePoints(Point3D p) {
+        if (_samplePoints == null)
+            return null;
+        if (_sampleShape == SampleShape.DISK)
+            return _diskProbePoints;
+
+        //the outline of the sphere seen from the point is the circle orthogonal to the direction of the point
+        Vector d;
+        try {
+            d = p.subtract(_position).normalized();
+        } catch (IllegalArgumentException exception) {
+            return null; //the point is the center of the light
+        }
+        Vector u = d.crossProduct(Math.abs(d.getX()) < 0.9 ? new Vector(1, 0, 0) : new Vector(0, 1, 0)).normalized();
+        Vector w = d.crossProduct(u);
+        return buildProbePoints(u, w);
+    }
 
+    /**
+     * Spread the sample points evenly on the shape with the golden angle (Fibonacci spiral)
+     * @return the points as (x, y, z) triples or null if the light has no radius
+     */
+    private double[] buildSamplePoints() {
+        if (_radius <= 0)
+            return null;
+        double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+        double[] points = new double[3 * _sampleCount];
+        for (int k = 0; k < _sampleCount; ++k) {
+            double angle = k * goldenAngle;
+            double x, y, z;
+            if (_sampleShape == SampleShape.DISK) {
+                //same area between two following points
+                double r = _radius * Math.sqrt((k + 0.5) / _sampleCount);
+                x = r * Math.cos(angle);
+                y = 0;
+                z = r * Math.sin(angle);
+            } else {
+                //same height between two following points
+                y = 1 - 2 * (k + 0.5) / _sampleCount;
+                double r = Math.sqrt(1 - y * y);
+                x = _radius * r * Math.cos(angle);
+                y = _radius * y;
+                z = _radius * r * Math.sin(angle);
             }
+            points[3 * k] = _position.getX() + x;
+            points[3 * k + 1] = _position.getY() + y;
+            points[3 * k + 2] = _position.getZ() + z;
         }
-        vectors.add(getL(p));
-        return vectors;
+        return points;
+    }
+
+    /**
+     * Build the probe points of the disk, which is horizontal whatever the shaded point
+     * @return the points as (x, y, z) triples or null if the light has no radius
+     */
+    private double[] buildDiskProbePoints() {
+        if (_radius <= 0)
+            return null;
+        return buildProbePoints(new Vector(1, 0, 0), new Vector(0, 0, 1));
+    }
+
+    /**
+     * Build the probe points: PROBES points on the circle of the light radius in the plane
+     * of two orthogonal unit vectors and the center
+     * @param u first vector of the plane
+     * @param w second vector of the plane
+     * @return the points as (x, y, z) triples
+     */
+    private double[] buildProbePoints(Vector u, Vector w) {
+        double[] points = new double[3 * (PROBES + 1)];
+        for (int j = 0; j < PROBES; ++j) {
+            double cos = _radius * Math.cos(2 * Math.PI * j / PROBES);
+            double sin = _radius * Math.sin(2 * Math.PI * j / PROBES);
+            points[3 * j] = _position.getX() + cos * u.getX() + sin * w.getX();
+            points[3 * j + 1] = _position.getY() + cos * u.getY() + sin * w.getY();
+            points[3 * j + 2] = _position.getZ() + cos * u.getZ() + sin * w.getZ();
+        }
+        points[3 * PROBES] = _position.getX();
+        points[3 * PROBES + 1] = _position.getY();
+        points[3 * PROBES + 2] = _position.getZ();
+        return points;
     }
 
     @Override
@@ -0,0 +1,196 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Class to implement an axis-aligned bounding box (AABB) around a bounded geometry
+ *
+ * @author Hillel, Yona
+ */
+public class BoundingBox {
+
+    /**
+     * Small padding added on every side of the box in the ray test so hits lying
+     * exactly on a flat geometry's box are never culled because of rounding
+     */
+    static final double PADDING = 1e-7;
+
+    /**
+     * Lower corner of the box
+     */
+    private final double _minX, _minY, _minZ;
+
+    /**
+     * Upper corner of the box
+     */
+    private final double _maxX, _maxY, _maxZ;
+
+    /**
+     * Constructor of the box by its two corners
+     *
+     * @param minX lower x value
+     * @param minY lower y value
+     * @param minZ lower z value
+     * @param maxX upper x value
+     * @param maxY upper y value
+     * @param maxZ upper z value
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        _minX = minX;
+        _minY = minY;
+        _minZ = minZ;
+        _maxX = maxX;
+        _maxY = maxY;
+        _maxZ = maxZ;
+    }
+
+    /**
+     * Build the smallest box containing all the points
+     *
+     * @param points the points (at least one)
+     * @return the box
+     */
+    public static BoundingBox of(Point3D... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point3D point : points) {
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            minZ = Math.min(minZ, point.getZ());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+            maxZ = Math.max(maxZ, point.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Get the smallest box containing this box and another one
+     *
+     * @param other the other box
+     * @return the union box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(_minX, other._minX), Math.min(_minY, other._minY), Math.min(_minZ, other._minZ),
+                Math.max(_maxX, other._maxX), Math.max(_maxY, other._maxY), Math.max(_maxZ, other._maxZ));
+    }
+
+    /**
+     * Get the center of the box on an axis
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the center value
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (_minX + _maxX) / 2;
+            case 1 -> (_minY + _maxY) / 2;
+            default -> (_minZ + _maxZ) / 2;
+        };
+    }
+
+    /**
+     * Get the axis on which the box is the longest
+     *
+     * @return 0 for x, 1 for y, 2 for z
+     */
+    public int getLongestAxis() {
+        double dx = _maxX - _minX;
+        double dy = _maxY - _minY;
+        double dz = _maxZ - _minZ;
+        if (dx >= dy && dx >= dz)
+            return 0;
+        return dy >= dz ? 1 : 2;
+    }
+
+    /**
+     * Check if a ray crosses the box before a max distance
+     *
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersection
+     * @return true if the ray can hit something inside the box
+     */
+    public boolean isIntersecting(Ray ray, double maxDistance) {
+        return findEntryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Find the distance along the ray where it enters the box, using the slab method:
+     * the ray is clipped between the two planes of every axis and it crosses the box
+     * only if the three intervals overlap
+     *
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersection
+     * @return the entry distance (0 if the ray starts inside the box) or
+     * positive infinity if the ray misses the box before the max distance
+     */
+    public double findEntryDistance(Ray ray, double maxDistance) {
+        Point3D p0 = ray.get_p0();
+        Vector dir = ray.get_dir();
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        //x slab
+        double o = p0.getX();
+        double d = dir.getX();
+        if (d == 0) {
+            if (o < _minX - PADDING || o > _maxX + PADDING) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (_minX - PADDING - o) / d;
+            double t2 = (_maxX + PADDING - o) / d;
+            if (t1 > t2) {
+                double tmp = t1;
+                t1 = t2;
+                t2 = tmp;
+            }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+
+        //y slab
+        o = p0.getY();
+        d = dir.getY();
+        if (d == 0) {
+            if (o < _minY - PADDING || o > _maxY + PADDING) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (_minY - PADDING - o) / d;
+            double t2 = (_maxY + PADDING - o) / d;
+            if (t1 > t2) {
+                double tmp = t1;
+                t1 = t2;
+                t2 = tmp;
+            }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+
+        //z slab
+        o = p0.getZ();
+        d = dir.getZ();
+        if (d == 0) {
+            return o < _minZ - PADDING || o > _maxZ + PADDING ? Double.POSITIVE_INFINITY : tNear;
+        }
+        double t1 = (_minZ - PADDING - o) / d;
+        double t2 = (_maxZ + PADDING - o) / d;
+        if (t1 > t2) {
+            double tmp = t1;
+            t1 = t2;
+            t2 = tmp;
+        }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        return tNear <= tFar ? tNear : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + _minX + ", " + _minY + ", " + _minZ + ")" +
+                ", max=(" + _maxX + ", " + _maxY + ", " + _maxZ + ")" +
+                '}';
+    }
+}
@@ -5,9 +5,11 @@ import primitives.Ray;
 import primitives.Util;
 import primitives.Vector;
 
-import java.util.LinkedList;
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Class to implement a Cylinder object
  */
@@ -22,6 +24,23 @@ public class Cylinder extends Tube {
     public Cylinder(double radius, Ray axisRay, double height) {
         super(radius, axisRay);
         _height = height;
+
+        //the bases are discs around the axis: on every axis of the box a base spreads
+        //by radius * sin(angle between the cylinder's axis and this axis)
+        Point3D p1 = axisRay.get_p0();
+        Point3D p2 = axisRay.getPoint(height);
+        Vector dir = axisRay.get_dir();
+        double ex = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        _box = new BoundingBox(Math.min(p1.getX(), p2.getX()) - ex, Math.min(p1.getY(), p2.getY()) - ey,
+                Math.min(p1.getZ(), p2.getZ()) - ez, Math.max(p1.getX(), p2.getX()) + ex,
+                Math.max(p1.getY(), p2.getY()) + ey, Math.max(p1.getZ(), p2.getZ()) + ez);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _box;
     }
 
     @Override
@@ -59,66 +78,56 @@ public class Cylinder extends Tube {
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
 
-        List<GeoPoint> result = new LinkedList<>();
-        Vector va = this._axisRay.get_dir();
-        Point3D p1 = this._axisRay.get_p0();
-        Point3D p2 = p1.add(this._axisRay.get_dir().scale(this._height));
-
-        Plane plane1 = new Plane(p1, this._axisRay.get_dir()); //get plane of bottom base
-        List<GeoPoint> result2 = plane1.findGeoIntersections(ray, maxDistance); //intersections with bottom's plane
-        if (result2 != null){
-            //Add all intersections of bottom's plane that are in the base's bounders
-            for (GeoPoint point : result2) {
-                if (point.point.equals(p1)){ //to avoid vector ZERO
-                    if (point.point.distance(ray.get_p0()) <= maxDistance){
-                        result.add(new GeoPoint(this, point.point));
-                    }
-                }
-                //Formula that checks that point is inside the base
-                else if ((point.point.subtract(p1).dotProduct(point.point.subtract(p1)) < this._radius * this._radius)){
-                    if (point.point.distance(ray.get_p0()) <= maxDistance){
-                        result.add(new GeoPoint(this, point.point));
-                    }
-                }
-            }
-        }
+        if (isMissingBox(ray, maxDistance))
+            return null;
+
+        Point3D p0 = ray.get_p0();
+        Vector v = ray.get_dir();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        //deltaP = p0 - pa, from the head of the axis to the ray's head
+        double px = p0.getX() - _axisX, py = p0.getY() - _axisY, pz = p0.getZ() - _axisZ;
+        double vva = vx * _dirX + vy * _dirY + vz * _dirZ;
+        double pva = px * _dirX + py * _dirY + pz * _dirZ;
 
-        List<GeoPoint> result1 = super.findGeoIntersections(ray, maxDistance); //get intersections for tube
-
-        if (result1 != null){
-            //Add all intersections of tube that are in the cylinder's bounders
-            for (GeoPoint point:result1) {
-                if (va.dotProduct(point.point.subtract(p1)) > 0 && va.dotProduct(point.point.subtract(p2)) < 0){
-                    if (point.point.distance(ray.get_p0()) <= maxDistance){
-                        result.add(new GeoPoint(this, point.point));
-                    }
-                }
-            }
+        List<GeoPoint> result = null;
+
+        //bottom base: the plane of the axis head, normal to the axis
+        if (!isZero(vva)) {
+            double t = alignZero(-pva / vva);
+            if (t > 0 && t <= maxDistance && isInBase(px, py, pz, vx, vy, vz, t, 0))
+                result = addIntersection(result, ray, t);
         }
 
+        //lateral surface: the points of the tube between the two bases
+        result = findLateralIntersections(ray, maxDistance, 0, _height, result);
 
-        Plane plane2 = new Plane(p2, this._axisRay.get_dir()); //get plane of top base
-        List<GeoPoint> result3 = plane2.findGeoIntersections(ray, maxDistance); //intersections with top's plane
-
-        if (result3 != null){
-            for (GeoPoint point : result3) {
-                if (point.point.equals(p2)){ //to avoid vector ZERO
-                    if (point.point.distance(ray.get_p0()) <= maxDistance){
-                        result.add(new GeoPoint(this, point.point));
-                    }
-                }
-                //Formula that checks that point is inside the base
-                else if ((point.point.subtract(p2).dotProduct(point.point.subtract(p2)) < this._radius * this._radius)){
-                    if (point.point.distance(ray.get_p0()) <= maxDistance){
-                        result.add(new GeoPoint(this, point.point));
-                    }
-                }
-            }
+        //top base: the plane at the height of the cylinder, normal to the axis
+        if (!isZero(vva)) {
+            double t = alignZero((_height - pva) / vva);
+            if (t > 0 && t <= maxDistance && isInBase(px, py, pz, vx, vy, vz, t, _height))
+                result = addIntersection(result, ray, t);
         }
 
-        if (result.size() > 0)
-            return result;
+        return result;
+    }
 
-        return null;
+    /**
+     * Check if the point of the ray at t, on the plane of a base, is inside the disc of the base
+     *
+     * @param px     x of the ray's head from the head of the axis
+     * @param py     y of the ray's head from the head of the axis
+     * @param pz     z of the ray's head from the head of the axis
+     * @param vx     x of the ray's direction
+     * @param vy     y of the ray's direction
+     * @param vz     z of the ray's direction
+     * @param t      distance of the point on the ray
+     * @param height height of the base on the axis (0 for the bottom base)
+     * @return true if the point is strictly inside the disc
+     */
+    private boolean isInBase(double px, double py, double pz, double vx, double vy, double vz, double t, double height) {
+        double dx = px + t * vx - height * _dirX;
+        double dy = py + t * vy - height * _dirY;
+        double dz = pz + t * vz - height * _dirZ;
+        return dx * dx + dy * dy + dz * dz < _radiusSquared;
     }
 }
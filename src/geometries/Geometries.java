@@ -3,18 +3,52 @@ package geometries;
 import primitives.Point3D;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Class to implement a
  */
 public class Geometries implements Intersectable{
 
+    /**
+     * Max number of elements in a leaf of the bounding volume hierarchy
+     */
+    private static final int LEAF_SIZE = 2;
+
     //use of linked list because of the better speed to get objects (we won't need to remove any)
     private List<Intersectable> _intersectables = new LinkedList<>();
 
+    /**
+     * Is the bounding volume hierarchy used to find the intersections
+     */
+    private boolean _bvh = false;
+
+    /**
+     * Elements traversed when the hierarchy is used: the unbounded elements and the root of
+     * the tree of the bounded ones, built once on the first ray (null when it must be rebuilt)
+     */
+    private volatile List<Intersectable> _hierarchy;
+
+    /**
+     * Box around all the elements for a node of the hierarchy (null for a user's collection)
+     */
+    private BoundingBox _box;
+
+    /**
+     * Collection of the user the node of the hierarchy belongs to (the collection itself for a user's collection)
+     */
+    private Geometries _root = this;
+
+    /**
+     * Counter of the intersection tests of the elements, null when they are not counted
+     */
+    private Consumer<Intersectable> _testCounter;
+
     public Geometries(Intersectable ... geometries) {
        add(geometries);
     }
@@ -23,19 +57,85 @@ public class Geometries implements Intersectable{
         //nothing to add
     }
 
+    /**
+     * Constructor of a node of the bounding volume hierarchy
+     * @param intersectables elements of the node
+     * @param box box around all the elements
+     * @param root the collection of the user the hierarchy is built for
+     */
+    private Geometries(List<Intersectable> intersectables, BoundingBox box, Geometries root) {
+        _intersectables = intersectables;
+        _box = box;
+        _root = root;
+    }
+
     public void add(Intersectable... geometries) {
         Collections.addAll(_intersectables, geometries);
+        _hierarchy = null;
     }
 
     //Not in use
     public void remove(Intersectable... intersectables){}
 
+    /**
+     * Set the counter of the intersection tests: it gets every element (out of the collections)
+     * a ray is tested against, in this collection and in the collections inside it
+     * @param testCounter the counter, null to stop counting
+     * @return the geometries itself
+     */
+    public Geometries setTestCounter(Consumer<Intersectable> testCounter) {
+        _testCounter = testCounter;
+        for (Intersectable item : _intersectables)
+            if (item instanceof Geometries geometries)
+                geometries.setTestCounter(testCounter);
+        return this;
+    }
+
+    /**
+     * Count the test of a ray against an element if the tests are counted
+     * @param counter the counter of the tests, null if they are not counted
+     * @param item the tested element
+     */
+    private static void countTest(Consumer<Intersectable> counter, Intersectable item) {
+        if (counter != null && !(item instanceof Geometries))
+            counter.accept(item);
+    }
+
+    /**
+     * Set use of a bounding volume hierarchy over the elements, the rendered
+     * intersections are the same as without it but whole groups of elements
+     * the ray cannot reach are skipped
+     * @param bvh true to use the hierarchy
+     * @return the geometries itself
+     */
+    public Geometries setBVH(boolean bvh) {
+        _bvh = bvh;
+        return this;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (_box != null)
+            return _box;
+        BoundingBox box = null;
+        for (Intersectable item : _intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null)
+                return null; //an unbounded element makes the whole collection unbounded
+            box = box == null ? itemBox : box.union(itemBox);
+        }
+        return box;
+    }
+
     @Override
     public List<Point3D> findIntersections(Ray ray) {
+        if (_box != null && !_box.isIntersecting(ray, Double.POSITIVE_INFINITY))
+            return null;
+
         List<Point3D> result = null;
 
         //gets list of intersections of all elements with the ray
-        for (Intersectable item : _intersectables) {
+        for (Intersectable item : getItems()) {
             List<Point3D> itemPoints = item.findIntersections(ray);
             if (itemPoints != null){
                 if(result == null){
@@ -49,16 +149,21 @@ public class Geometries implements Intersectable{
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        if (_box != null && !_box.isIntersecting(ray, maxDistance))
+            return null;
+
         List<GeoPoint> result = null;
 
-        for (Intersectable item : _intersectables) {
+        Consumer<Intersectable> counter = _root._testCounter;
+        for (Intersectable item : getItems()) {
+            countTest(counter, item);
             List<GeoPoint> itemPoints = item.findGeoIntersections(ray, maxDistance);
             if (itemPoints != null){
                 if(result == null){
                     result = new LinkedList<>();
                 }
                 for (GeoPoint itemPoint : itemPoints) {
-                    if (ray.get_p0().distance(itemPoint.point) <= maxDistance){
+                    if (itemPoint.t <= maxDistance){
                         result.add(itemPoint);
                     }
                 }
@@ -66,4 +171,172 @@ public class Geometries implements Intersectable{
         }
         return result;
     }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        if (_box != null && !_box.isIntersecting(ray, maxDistance))
+            return null;
+        return findClosestInItems(ray, maxDistance);
+    }
+
+    /**
+     * Find the closest intersection among the elements, without testing the box of this collection.
+     * The search distance shrinks to every closer intersection found, so farther elements and
+     * boxes of the hierarchy are skipped; the nearer of two nodes is visited first
+     * @param ray the ray
+     * @param maxDistance max distance of the intersection
+     * @return the closest GeoPoint of intersection or null if there is none
+     */
+    private GeoPoint findClosestInItems(Ray ray, double maxDistance) {
+        List<Intersectable> items = getItems();
+        GeoPoint closest = null;
+
+        //node of the hierarchy with two nodes under it: visit the nearer first
+        if (items.size() == 2 && items.get(0) instanceof Geometries first && first._box != null
+                && items.get(1) instanceof Geometries second && second._box != null) {
+            double firstDistance = first._box.findEntryDistance(ray, maxDistance);
+            double secondDistance = second._box.findEntryDistance(ray, maxDistance);
+            if (secondDistance < firstDistance) {
+                Geometries tmp = first;
+                first = second;
+                second = tmp;
+                double tmpDistance = firstDistance;
+                firstDistance = secondDistance;
+                secondDistance = tmpDistance;
+            }
+            if (firstDistance != Double.POSITIVE_INFINITY) {
+                closest = first.findClosestInItems(ray, maxDistance);
+                if (closest != null)
+                    maxDistance = closest.t;
+            }
+            if (secondDistance != Double.POSITIVE_INFINITY && secondDistance <= maxDistance) {
+                GeoPoint geoPoint = second.findClosestInItems(ray, maxDistance);
+                if (geoPoint != null && (closest == null || geoPoint.t < closest.t))
+                    closest = geoPoint;
+            }
+            return closest;
+        }
+
+        Consumer<Intersectable> counter = _root._testCounter;
+        for (Intersectable item : items) {
+            countTest(counter, item);
+            GeoPoint geoPoint = item.findClosestGeoIntersection(ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < closest.t)) {
+                closest = geoPoint;
+                maxDistance = geoPoint.t;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance) {
+        if (_box != null && !_box.isIntersecting(ray, maxDistance))
+            return 1.0;
+
+        double ktr = 1.0;
+        Consumer<Intersectable> counter = _root._testCounter;
+        for (Intersectable item : getItems()) {
+            countTest(counter, item);
+            ktr *= item.findTransparency(ray, maxDistance);
+            if (ktr == 0)
+                return 0.0; //an opaque element blocks the ray, no need to look further
+        }
+        return ktr;
+    }
+
+    /**
+     * Get the elements to traverse for a ray
+     * @return the elements themselves or the hierarchy built over them
+     */
+    private List<Intersectable> getItems() {
+        if (!_bvh)
+            return _intersectables;
+        List<Intersectable> hierarchy = _hierarchy;
+        return hierarchy != null ? hierarchy : buildHierarchy();
+    }
+
+    /**
+     * Build the hierarchy over the elements: unbounded elements are kept aside and
+     * are always tested, the bounded ones are put in a tree of boxes
+     * @return the elements to traverse
+     */
+    private synchronized List<Intersectable> buildHierarchy() {
+        if (_hierarchy != null)
+            return _hierarchy;
+
+        List<Intersectable> hierarchy = new ArrayList<>();
+        List<Intersectable> bounded = new ArrayList<>();
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (Intersectable item : _intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null) {
+                hierarchy.add(item);
+            } else {
+                bounded.add(item);
+                boxes.add(box);
+            }
+        }
+        if (!bounded.isEmpty())
+            hierarchy.add(buildNode(bounded, boxes, this));
+
+        _hierarchy = hierarchy;
+        return hierarchy;
+    }
+
+    /**
+     * Build recursively a node of the hierarchy by splitting the elements in two halves
+     * by the centers of their boxes along the longest axis
+     * @param items the bounded elements
+     * @param boxes the boxes of the elements (same order)
+     * @param root the collection of the user the hierarchy is built for
+     * @return the node
+     */
+    private static Geometries buildNode(List<Intersectable> items, List<BoundingBox> boxes, Geometries root) {
+        BoundingBox box = boxes.get(0);
+        BoundingBox centers = centerBox(box);
+        for (int i = 1; i < boxes.size(); ++i) {
+            box = box.union(boxes.get(i));
+            centers = centers.union(centerBox(boxes.get(i)));
+        }
+        if (items.size() <= LEAF_SIZE)
+            return new Geometries(new ArrayList<>(items), box, root);
+
+        int axis = centers.getLongestAxis();
+        List<Integer> order = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); ++i)
+            order.add(i);
+        order.sort(Comparator.comparingDouble(i -> boxes.get(i).getCenter(axis)));
+
+        int middle = items.size() / 2;
+        List<Intersectable> leftItems = new ArrayList<>(middle);
+        List<BoundingBox> leftBoxes = new ArrayList<>(middle);
+        List<Intersectable> rightItems = new ArrayList<>(items.size() - middle);
+        List<BoundingBox> rightBoxes = new ArrayList<>(items.size() - middle);
+        for (int i = 0; i < order.size(); ++i) {
+            int index = order.get(i);
+            if (i < middle) {
+                leftItems.add(items.get(index));
+                leftBoxes.add(boxes.get(index));
+            } else {
+                rightItems.add(items.get(index));
+                rightBoxes.add(boxes.get(index));
+            }
+        }
+
+        List<Intersectable> children = new ArrayList<>(2);
+        children.add(buildNode(leftItems, leftBoxes, root));
+        children.add(buildNode(rightItems, rightBoxes, root));
+        return new Geometries(children, box, root);
+    }
+
+    /**
+     * Get a flat box at the center of a box
+     * @param box the box
+     * @return the box of the center point
+     */
+    private static BoundingBox centerBox(BoundingBox box) {
+        double x = box.getCenter(0), y = box.getCenter(1), z = box.getCenter(2);
+        return new BoundingBox(x, y, z, x, y, z);
+    }
 }
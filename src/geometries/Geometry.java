@@ -3,6 +3,7 @@ package geometries;
 import primitives.Color;
 import primitives.Material;
 import primitives.Point3D;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -20,6 +21,12 @@ public abstract class Geometry implements Intersectable {
      */
     protected Material _material = new Material();
 
+    /**
+     * Box around the geometry, computed once by the constructor of a bounded geometry.
+     * It stays null for unbounded geometries (Plane, Tube)
+     */
+    protected BoundingBox _box;
+
     /**
      * Get emission of the geometry
      * @return Color of the emission
@@ -44,6 +51,32 @@ public abstract class Geometry implements Intersectable {
      */
     public abstract Vector getNormal(Point3D point);
 
+    /**
+     * Get normal to the geometry at an intersection, a geometry may use what it
+     * stored in the GeoPoint when it found it
+     * @param geoPoint the intersection
+     * @return the normal
+     */
+    public Vector getNormal(GeoPoint geoPoint) {
+        return getNormal(geoPoint.getPoint());
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _box;
+    }
+
+    /**
+     * Check with the bounding box if the ray surely misses the geometry,
+     * in order to skip the full intersection calculation
+     * @param ray the ray
+     * @param maxDistance max distance of the intersection
+     * @return true if the ray cannot intersect the geometry
+     */
+    protected boolean isMissingBox(Ray ray, double maxDistance) {
+        return _box != null && !_box.isIntersecting(ray, maxDistance);
+    }
+
     /**
      * Get material of the geometry
      * @return Material of the geometry
@@ -2,6 +2,7 @@ package geometries;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 import java.util.Objects;
@@ -20,7 +21,7 @@ public interface Intersectable {
     default List<Point3D> findIntersections(Ray ray) {
         var geoList = findGeoIntersections(ray);
         return geoList == null ? null
-                : geoList.stream().map(gp -> gp.point).collect(Collectors.toList());
+                : geoList.stream().map(GeoPoint::getPoint).collect(Collectors.toList());
     }
 
     /**
@@ -40,13 +41,105 @@ public interface Intersectable {
      */
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance);
 
+    /**
+     * By default the distance is infinite
+     * @param ray
+     * @return the closest GeoPoint of intersection or null if there is none
+     */
+    default GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Function that finds only the closest intersection at good distance between geometric element and ray,
+     * the returned GeoPoint holds its distance from the ray's head
+     * @param ray
+     * @param maxDistance max distance of the intersection
+     * @return the closest GeoPoint of intersection or null if there is none
+     */
+    default GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        List<GeoPoint> geoPoints = findGeoIntersections(ray, maxDistance);
+        if (geoPoints == null)
+            return null;
+
+        //every intersection holds its distance from the ray's head
+        GeoPoint closest = null;
+        for (GeoPoint geoPoint : geoPoints) {
+            if (closest == null || geoPoint.t < closest.t) {
+                closest = geoPoint;
+            }
+        }
+        return closest;
+    }
 
     /**
-     * Class that contains geometry and point for implementation of intersectable
+     * Function that finds how much light passes through the element along a ray before a max distance
+     * (any-hit query for shadow rays): the transparency factors kT of the intersections are multiplied
+     * and the search stops at the first opaque intersection
+     * @param ray ray from a point to a light source
+     * @param maxDistance distance of the light source
+     * @return transparency factor, 1 when nothing is in the way and 0 when an opaque element blocks the ray
+     */
+    default double findTransparency(Ray ray, double maxDistance) {
+        List<GeoPoint> geoPoints = findGeoIntersections(ray, maxDistance);
+        if (geoPoints == null)
+            return 1.0;
+        double ktr = 1.0;
+        for (GeoPoint geoPoint : geoPoints) {
+            ktr *= geoPoint.geometry.getMaterial().kT;
+            if (ktr == 0)
+                return 0.0;
+        }
+        return ktr;
+    }
+
+    /**
+     * Get the axis-aligned box around the element, by default the element is unbounded
+     * @return the bounding box or null if the element is unbounded (infinite)
+     */
+    default BoundingBox getBoundingBox() {
+        return null;
+    }
+
+    /**
+     * Class that contains geometry and point for implementation of intersectable.
+     * A hit found along a ray is recorded as (geometry, t): its point and its normal are only
+     * built when they are asked for, most hits lose the closest-hit race or only attenuate a shadow
      */
     public static class GeoPoint {
         public Geometry geometry;
-        public Point3D point;
+
+        /**
+         * The point, null until it is built from the ray
+         */
+        private Point3D point;
+
+        /**
+         * Ray of the hit, to build the point from t
+         */
+        private Ray ray;
+
+        /**
+         * Normal to the geometry at the point, null until it is asked for
+         */
+        private Vector normal;
+
+        /**
+         * Distance of the point from the ray's head (ray parameter), NaN when unknown
+         */
+        public double t = Double.NaN;
+
+        /**
+         * Index of the hit face for a geometry made of faces (mesh), -1 otherwise
+         */
+        public int face = -1;
+
+        /**
+         * Barycentric coordinates of the point on a triangle: the weights of its second and third
+         * vertices (the first one has 1 - u - v), NaN when unknown
+         */
+        public double u = Double.NaN;
+        public double v = Double.NaN;
 
         /**
          * Constructor
@@ -58,17 +151,61 @@ public interface Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructor with the ray parameter of the point
+         * @param geometry the geometry
+         * @param point the point
+         * @param t distance of the point from the ray's head
+         */
+        public GeoPoint(Geometry geometry, Point3D point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * Constructor of a hit along a ray, the point is built when it is asked for
+         * @param geometry the geometry
+         * @param ray the ray
+         * @param t distance of the point from the ray's head
+         */
+        public GeoPoint(Geometry geometry, Ray ray, double t) {
+            this.geometry = geometry;
+            this.ray = ray;
+            this.t = t;
+        }
+
+        /**
+         * Get the point, built at the first call for a hit along a ray
+         * @return the point
+         */
+        public Point3D getPoint() {
+            if (point == null)
+                point = ray.getPoint(t);
+            return point;
+        }
+
+        /**
+         * Get the normal to the geometry at the point, calculated at the first call
+         * @return the normal
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = geometry.getNormal(this);
+            return normal;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             GeoPoint geoPoint = (GeoPoint) o;
-            return geometry.equals(geoPoint.geometry) && point.equals(geoPoint.point);
+            return geometry.equals(geoPoint.geometry) && getPoint().equals(geoPoint.getPoint());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(geometry, point);
+            return Objects.hash(geometry, getPoint());
         }
     }
 
@@ -34,6 +34,15 @@ public class Plane extends Geometry {
         return _normal;
     }
 
+    /**
+     * A plane is infinite so it is unbounded
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
@@ -59,17 +68,10 @@ public class Plane extends Geometry {
 
         double t = alignZero(_normal.dotProduct(p0Q) / check);//It gives us the t to determine the coordinate of the intersection , so the x,y,z according to the value of t
 
-        if (t < 0) {
-            return null;
-        } else {
-            Point3D point = ray.getPoint(t);
-            if (point != null){
-                if (point.distance(ray.get_p0()) <= maxDistance){
-                    return List.of(new GeoPoint(this, point));
-                }
-            }
+        if (t < 0 || t > maxDistance) {
             return null;
         }
+        return List.of(new GeoPoint(this, ray, t));
 
     }
 }
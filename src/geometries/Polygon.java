@@ -2,7 +2,6 @@ package geometries;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import primitives.*;
 
@@ -24,6 +23,19 @@ public class Polygon extends Geometry {
      */
     protected Plane _plane;
 
+    /**
+     * Planes of the edges, orthogonal to the polygon, as unit normals pointing inside the polygon
+     * ((x, y, z) triples) and their offsets: a point of the polygon's plane is strictly inside the
+     * polygon when it is strictly on the inner side of every edge. Not used by a Triangle
+     */
+    private double[] _edgeNormals;
+    private double[] _edgeOffsets;
+
+    /**
+     * Offset of the polygon's plane: n * P for every point P of the plane
+     */
+    private double _planeOffset;
+
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
      * path. The polygon must be convex.
@@ -53,11 +65,12 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         _plane = new Plane(vertices[0], vertices[1], vertices[2]);
+        _box = BoundingBox.of(vertices);
+        Vector n = _plane.getNormal((Point3D) null);
+        buildEdgePlanes(vertices, n);
         if (vertices.length == 3)
             return; // no need for more tests for a Triangle
 
-        Vector n = _plane.getNormal(null);
-
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -85,9 +98,31 @@ public class Polygon extends Geometry {
         }
     }
 
+    /**
+     * Build the planes of the edges. The normal of the polygon's plane is given by its first three
+     * vertices so the vertices turn counterclockwise around it, and the normal crossed with an edge
+     * points inside the polygon
+     *
+     * @param vertices the vertices according to their order by edge path
+     * @param n        normal of the polygon's plane
+     */
+    private void buildEdgePlanes(Point3D[] vertices, Vector n) {
+        _planeOffset = n.getX() * vertices[0].getX() + n.getY() * vertices[0].getY() + n.getZ() * vertices[0].getZ();
+        _edgeNormals = new double[3 * vertices.length];
+        _edgeOffsets = new double[vertices.length];
+        for (int i = 0; i < vertices.length; ++i) {
+            Point3D from = vertices[i];
+            Vector inside = n.crossProduct(vertices[(i + 1) % vertices.length].subtract(from)).normalize();
+            _edgeNormals[3 * i] = inside.getX();
+            _edgeNormals[3 * i + 1] = inside.getY();
+            _edgeNormals[3 * i + 2] = inside.getZ();
+            _edgeOffsets[i] = inside.getX() * from.getX() + inside.getY() * from.getY() + inside.getZ() * from.getZ();
+        }
+    }
+
     @Override
     public Vector getNormal(Point3D point) {
-        return _plane.getNormal(null);
+        return _plane.getNormal((Point3D) null);
     }
 
 
@@ -112,40 +147,30 @@ public class Polygon extends Geometry {
         //
         //R0 + tV = P.
         //
-        //Finally, you want to go around each adjacent pair of points in the polygon checking that P is inside
-        // the polygon, which is done by checking that P is to the same side of each line made by the points.
-
-        List<GeoPoint> intersections = _plane.findGeoIntersections(ray, maxDistance);
+        //Finally, you want to check that P is inside the polygon, which is done by checking that P is
+        //strictly on the inner side of the plane of every edge (planes computed by the constructor).
 
-        if (intersections == null)
+        if (isMissingBox(ray, maxDistance))
             return null;
 
         Point3D p0 = ray.get_p0();
         Vector v = ray.get_dir();
-
-        Vector v1 = _vertices.get(1).subtract(p0);
-
-        Vector v2 = _vertices.get(0).subtract(p0);
-
-        double sign = v.dotProduct(v1.crossProduct(v2));
-
-        if (isZero(sign))
-            return null;
-
-        boolean positive = sign > 0;
-
-        for (int i = _vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = _vertices.get(i).subtract(p0);
-            sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-
-            if (isZero(sign))
-                return null;
-
-            if (positive != (sign > 0))
-                return null;
+        Vector n = _plane.getNormal((Point3D) null);
+        double nv = n.getX() * v.getX() + n.getY() * v.getY() + n.getZ() * v.getZ();
+        if (isZero(nv))
+            return null; //the ray is parallel to the plane
+        double t = alignZero((_planeOffset - n.getX() * p0.getX() - n.getY() * p0.getY() - n.getZ() * p0.getZ()) / nv);
+        if (t <= 0 || t > maxDistance)
+            return null; //the plane is behind the ray or after the max distance
+
+        double x = p0.getX() + t * v.getX(), y = p0.getY() + t * v.getY(), z = p0.getZ() + t * v.getZ();
+        for (int i = 0; i < _edgeOffsets.length; ++i) {
+            double side = alignZero(_edgeNormals[3 * i] * x + _edgeNormals[3 * i + 1] * y
+                    + _edgeNormals[3 * i + 2] * z - _edgeOffsets[i]);
+            if (side <= 0)
+                return null; //the point is outside or on an edge
         }
 
-        return intersections.stream().map(pt -> new GeoPoint(this, pt.point)).collect(Collectors.toList());
+        return List.of(new GeoPoint(this, ray, t));
     }
-}
\ No newline at end of file
+}
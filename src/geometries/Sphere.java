@@ -4,7 +4,6 @@ import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.*;
@@ -24,6 +23,12 @@ public class Sphere extends Geometry {
 
     private final double _radius;
 
+    /**
+     * Center and square of the radius kept as raw doubles for the intersections
+     */
+    private final double _centerX, _centerY, _centerZ;
+    private final double _radiusSquared;
+
     public double getRadius() {
         return _radius;
     }
@@ -31,11 +36,16 @@ public class Sphere extends Geometry {
     public Sphere(double radius,Point3D center) {
         this._radius = radius;
         this._center = center;
+        _centerX = center.getX();
+        _centerY = center.getY();
+        _centerZ = center.getZ();
+        _radiusSquared = radius * radius;
+        _box = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     public Sphere(double a, double b, double c, double radius) {
-        this._radius = radius;
-        _center = new Point3D(a, b, c);
+        this(radius, new Point3D(a, b, c));
     }
 
     public Point3D getCenter() {
@@ -58,69 +68,40 @@ public class Sphere extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
-        Point3D p0 = ray.get_p0();
-        Vector v = ray.get_dir();
-
-        if (p0.equals(_center))
-            throw new IllegalArgumentException("Ray's p0 cannot be equal to the center of the Sphere");
+        if (isMissingBox(ray, maxDistance))
+            return null;
 
         /*
         find intersections using formula:
         u = O - p0
         tm = v * u
-        d = sqrt(u^2 - tm^2)   if d >= r there are no intersections
-        th = sqrt(r^2 -d^2)
-        t1,t2 = tm +/- th, pI = p0 + ti   we take only ti > 0
+        d^2 = u^2 - tm^2   if d^2 >= r^2 there are no intersections
+        th = sqrt(r^2 - d^2)
+        t1,t2 = tm +/- th, pI = p0 + ti   we take only 0 < ti <= maxDistance
+        the direction of the ray is normalized so t is the distance from the ray's head,
+        a ray starting at the center has tm = 0 and d = 0
          */
+        Point3D p0 = ray.get_p0();
+        Vector v = ray.get_dir();
+        double ux = _centerX - p0.getX(), uy = _centerY - p0.getY(), uz = _centerZ - p0.getZ();
+        double tm = ux * v.getX() + uy * v.getY() + uz * v.getZ();
+        double th2 = alignZero(_radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
+        if (th2 <= 0)
+            return null; //the line misses the sphere or is tangent to it
 
-
-        Vector u = _center.subtract(p0);
-        double tm = u.dotProduct(v);
-        double d = alignZero(Math.sqrt(u.lengthSquared() - tm * tm));
-
-        if (d >= _radius)
-            return null; //there is no intersections
-
-        double th = alignZero(Math.sqrt(_radius * _radius - d * d));
-        double t1 = tm - th;
+        double th = Math.sqrt(th2);
         double t2 = tm + th;
-
-        //only t > 0 because t < 0 point is before the ray's start
-
-        if (t1 > 0 && t2 > 0){
-            Point3D p1 = p0.add(v.scale(t1));
-            double distance1 = p1.distance(ray.get_p0());
-            Point3D p2 = p0.add(v.scale(t2));
-            double distance2 = p2.distance(ray.get_p0());
-            if (distance1 <= maxDistance && distance2 <= maxDistance){
-                return List.of(new GeoPoint(this, p1), new GeoPoint(this, p2));
-            }
-            else if (distance1 <= maxDistance){
-                return List.of(new GeoPoint(this, p1));
-            }
-            else if (distance2 <= maxDistance){
-                return List.of(new GeoPoint(this, p2));
-            }
-            else{
-                return null;
-            }
-        }
-
-        if (t1 > 0){
-            Point3D p1 = p0.add(v.scale(t1));
-            double distance1 = p1.distance(ray.get_p0());
-            if (distance1 <= maxDistance){
-                return List.of(new GeoPoint(this, p1));
-            }
-        }
-        if (t2 > 0){
-            Point3D p2 = p0.add(v.scale(t2));
-            double distance2 = p2.distance(ray.get_p0());
-            if (distance2 <= maxDistance){
-                return List.of(new GeoPoint(this, p2));
-            }
-        }
-
-        return null;
+        if (t2 <= 0)
+            return null; //the sphere is behind the ray
+        double t1 = tm - th;
+        if (t1 > maxDistance)
+            return null; //the sphere is after the max distance
+
+        if (t1 > 0)
+            return t2 <= maxDistance
+                    ? List.of(new GeoPoint(this, ray, t1), new GeoPoint(this, ray, t2))
+                    : List.of(new GeoPoint(this, ray, t1));
+        //the ray starts inside the sphere
+        return t2 <= maxDistance ? List.of(new GeoPoint(this, ray, t2)) : null;
     }
 }
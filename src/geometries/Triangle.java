@@ -7,10 +7,7 @@ import primitives.Vector;
 import static primitives.Util.*;
 
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Triangle class represents two-dimensional Tube in 3D Cartesian coordinate
@@ -20,40 +17,80 @@ import java.util.stream.Collectors;
  */
 public class Triangle extends Polygon {
 
+    /**
+     * First vertex and the two edges leaving it, kept as raw coordinates for the intersection
+     */
+    private final double _ax, _ay, _az;
+    private final double _e1x, _e1y, _e1z;
+    private final double _e2x, _e2y, _e2z;
+
     public Triangle(Point3D... vertices) {
         super(vertices);
+        Point3D a = vertices[0];
+        _ax = a.getX();
+        _ay = a.getY();
+        _az = a.getZ();
+        _e1x = vertices[1].getX() - _ax;
+        _e1y = vertices[1].getY() - _ay;
+        _e1z = vertices[1].getZ() - _az;
+        _e2x = vertices[2].getX() - _ax;
+        _e2y = vertices[2].getY() - _ay;
+        _e2z = vertices[2].getZ() - _az;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        GeoPoint geoPoint = findClosestGeoIntersection(ray, maxDistance);
+        return geoPoint == null ? null : List.of(geoPoint);
+    }
 
-         /*
-         We're starting to check if the plane where our triangle is ,intersect the ray ,if not return null,if yes :
-        */
-        List<GeoPoint> intersections = _plane.findGeoIntersections(ray, maxDistance);
-        if (intersections == null) return null;//Our plan doesn't intersect the ray
-
-        Point3D p0 = ray.get_p0();
-        Vector v = ray.get_dir();
-        //This step is necessary if the ray doesn't start at 0,0,0
-        Vector v1 = _vertices.get(0).subtract(p0);
-        Vector v2 = _vertices.get(1).subtract(p0);
-        Vector v3 = _vertices.get(2).subtract(p0);
-        //Check every side of the triangle
-        double s1 = v.dotProduct(v1.crossProduct(v2));
-
-        if (isZero(s1)) return null;
-
-        double s2 = v.dotProduct(v2.crossProduct(v3));
-
-        if (isZero(s2)) return null;
-
-        double s3 = v.dotProduct(v3.crossProduct(v1));
-
-        if (isZero(s3)) return null;
+    @Override
+    public double findTransparency(Ray ray, double maxDistance) {
+        return findClosestGeoIntersection(ray, maxDistance) == null ? 1.0 : _material.kT;
+    }
 
-        if (!((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0))) return null;
+    /**
+     * Find the intersection in a single pass (Moller-Trumbore algorithm): the distance and the
+     * barycentric coordinates of the point are found together, without the plane.
+     * The edges and the vertices of the triangle are not part of it
+     *
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersection
+     * @return the intersection with its distance and barycentric coordinates, or null if there is none
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        if (isMissingBox(ray, maxDistance))
+            return null;
+
+        Vector dir = ray.get_dir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        //p = dir x e2
+        double px = dy * _e2z - dz * _e2y, py = dz * _e2x - dx * _e2z, pz = dx * _e2y - dy * _e2x;
+        double det = _e1x * px + _e1y * py + _e1z * pz;
+        if (isZero(det))
+            return null; //the ray is parallel to the triangle
+        double inv = 1 / det;
 
-        return intersections.stream().map(pt -> new GeoPoint(this, pt.point)).collect(Collectors.toList());
+        Point3D p0 = ray.get_p0();
+        double sx = p0.getX() - _ax, sy = p0.getY() - _ay, sz = p0.getZ() - _az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1)
+            return null;
+
+        //q = s x e1
+        double qx = sy * _e1z - sz * _e1y, qy = sz * _e1x - sx * _e1z, qz = sx * _e1y - sy * _e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(1 - u - v) <= 0)
+            return null;
+
+        double t = alignZero((_e2x * qx + _e2y * qy + _e2z * qz) * inv);
+        if (t <= 0 || t > maxDistance)
+            return null;
+
+        GeoPoint geoPoint = new GeoPoint(this, ray, t);
+        geoPoint.u = u;
+        geoPoint.v = v;
+        return geoPoint;
     }
 }
@@ -0,0 +1,500 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Class to implement a mesh of triangles sharing their vertices. The positions are kept in one
+ * flat array and the triangles as indices into it, the whole mesh is a single geometry with one
+ * material and it has its own bounding volume hierarchy over the triangles
+ *
+ * @author Hillel, Yona
+ */
+public class TriangleMesh extends Geometry {
+
+    /**
+     * Max number of triangles in a leaf of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * Max depth of the hierarchy (size of the traversal stack)
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Max difference of the distances of two hits of faces on the same crossing of the surface
+     */
+    private static final double SAME_CROSSING = 1e-9;
+
+    /**
+     * Positions of the vertices as (x, y, z) triples
+     */
+    private final double[] _vertices;
+
+    /**
+     * Indices of the three vertices of every triangle, ordered by the leaves of the hierarchy
+     */
+    private final int[] _indices;
+
+    /**
+     * Boxes of the nodes of the hierarchy as (minX, minY, minZ, maxX, maxY, maxZ)
+     */
+    private final double[] _nodeBounds;
+
+    /**
+     * For a leaf: first triangle of the leaf, for an inner node: index of its right child
+     * (the left child always follows its parent)
+     */
+    private final int[] _nodeFirst;
+
+    /**
+     * For a leaf: number of triangles of the leaf, 0 for an inner node
+     */
+    private final int[] _nodeCount;
+
+    /**
+     * Number of nodes already built
+     */
+    private int _nodes = 0;
+
+    /**
+     * Receiver of the intersections found by the traversal of the hierarchy
+     */
+    private interface HitVisitor {
+        /**
+         * Receive an intersection
+         * @param face index of the triangle
+         * @param t distance of the intersection from the ray's head
+         * @return the new max distance of the search, negative to stop the search
+         */
+        double visit(int face, double t);
+    }
+
+    /**
+     * Constructor of the mesh by its buffers, the buffers are copied
+     *
+     * @param vertices positions of the vertices as (x, y, z) triples
+     * @param indices  indices of the three vertices of every triangle
+     * @throws IllegalArgumentException if the buffers are empty, not made of triples or an index is out of range
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length == 0 || vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices must be (x, y, z) triples");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have triangles of three indices");
+        for (int index : indices)
+            if (index < 0 || index >= vertices.length / 3)
+                throw new IllegalArgumentException("Index of vertex out of range: " + index);
+
+        _vertices = vertices.clone();
+        int faces = indices.length / 3;
+
+        //build the hierarchy over the triangles, by the centers of their boxes
+        int[] order = new int[faces];
+        double[] centers = new double[3 * faces];
+        for (int face = 0; face < faces; ++face) {
+            order[face] = face;
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = _vertices[3 * indices[3 * face] + axis];
+                double b = _vertices[3 * indices[3 * face + 1] + axis];
+                double c = _vertices[3 * indices[3 * face + 2] + axis];
+                centers[3 * face + axis] = (Math.min(a, Math.min(b, c)) + Math.max(a, Math.max(b, c))) / 2;
+            }
+        }
+        _nodeBounds = new double[6 * (2 * faces - 1)];
+        _nodeFirst = new int[2 * faces - 1];
+        _nodeCount = new int[2 * faces - 1];
+        buildNode(indices, order, centers, 0, faces, 0);
+
+        //put the triangles of every leaf one after the other
+        _indices = new int[indices.length];
+        for (int k = 0; k < faces; ++k)
+            System.arraycopy(indices, 3 * order[k], _indices, 3 * k, 3);
+
+        _box = new BoundingBox(_nodeBounds[0], _nodeBounds[1], _nodeBounds[2],
+                _nodeBounds[3], _nodeBounds[4], _nodeBounds[5]);
+    }
+
+    /**
+     * Constructor of the mesh by its vertices and the indices of the triangles
+     *
+     * @param vertices the vertices, an unused entry may be null
+     * @param indices  indices of the three vertices of every triangle
+     * @throws IllegalArgumentException if a triangle uses a missing vertex or an index is out of range
+     */
+    public TriangleMesh(Point3D[] vertices, int... indices) {
+        this(toBuffer(vertices, indices), indices);
+    }
+
+    /**
+     * Copy the vertices in a flat buffer
+     *
+     * @param vertices the vertices
+     * @param indices  indices of the triangles
+     * @return the positions as (x, y, z) triples
+     */
+    private static double[] toBuffer(Point3D[] vertices, int[] indices) {
+        for (int index : indices)
+            if (index >= 0 && index < vertices.length && vertices[index] == null)
+                throw new IllegalArgumentException("A triangle uses the missing vertex " + index);
+        double[] buffer = new double[3 * vertices.length];
+        for (int i = 0; i < vertices.length; ++i)
+            if (vertices[i] != null) {
+                buffer[3 * i] = vertices[i].getX();
+                buffer[3 * i + 1] = vertices[i].getY();
+                buffer[3 * i + 2] = vertices[i].getZ();
+            }
+        return buffer;
+    }
+
+    /**
+     * Get the number of triangles of the mesh
+     *
+     * @return the number of triangles
+     */
+    public int getFaceCount() {
+        return _indices.length / 3;
+    }
+
+    /**
+     * Build recursively a node of the hierarchy by splitting its triangles in two halves
+     * by their centers along the longest axis
+     *
+     * @param indices indices of the triangles (not ordered yet)
+     * @param order   the triangles, a node owns a range of it
+     * @param centers centers of the boxes of the triangles
+     * @param from    first triangle of the node in the order
+     * @param to      end of the range of the node in the order
+     * @param depth   depth of the node
+     */
+    private void buildNode(int[] indices, int[] order, double[] centers, int from, int to, int depth) {
+        int node = _nodes++;
+        double[] centerBounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int axis = 0; axis < 3; ++axis) {
+            _nodeBounds[6 * node + axis] = Double.POSITIVE_INFINITY;
+            _nodeBounds[6 * node + 3 + axis] = Double.NEGATIVE_INFINITY;
+        }
+        for (int k = from; k < to; ++k) {
+            int face = order[k];
+            for (int axis = 0; axis < 3; ++axis) {
+                for (int corner = 0; corner < 3; ++corner) {
+                    double value = _vertices[3 * indices[3 * face + corner] + axis];
+                    _nodeBounds[6 * node + axis] = Math.min(_nodeBounds[6 * node + axis], value);
+                    _nodeBounds[6 * node + 3 + axis] = Math.max(_nodeBounds[6 * node + 3 + axis], value);
+                }
+                centerBounds[axis] = Math.min(centerBounds[axis], centers[3 * face + axis]);
+                centerBounds[3 + axis] = Math.max(centerBounds[3 + axis], centers[3 * face + axis]);
+            }
+        }
+
+        int axis = 0;
+        for (int i = 1; i < 3; ++i)
+            if (centerBounds[3 + i] - centerBounds[i] > centerBounds[3 + axis] - centerBounds[axis])
+                axis = i;
+
+        //small node, all the triangles at the same place or too deep: leaf
+        if (to - from <= LEAF_SIZE || centerBounds[3 + axis] == centerBounds[axis] || depth >= MAX_DEPTH - 2) {
+            _nodeFirst[node] = from;
+            _nodeCount[node] = to - from;
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        select(order, centers, axis, from, to - 1, middle);
+        buildNode(indices, order, centers, from, middle, depth + 1);
+        _nodeFirst[node] = _nodes;
+        _nodeCount[node] = 0;
+        buildNode(indices, order, centers, middle, to, depth + 1);
+    }
+
+    /**
+     * Partially sort a range of the triangles (quickselect): the triangle at the wanted position
+     * gets its place in the order of the centers on the axis, the smaller ones are before it
+     * and the bigger ones after it
+     *
+     * @param order   the triangles
+     * @param centers centers of the boxes of the triangles
+     * @param axis    0 for x, 1 for y, 2 for z
+     * @param left    first position of the range
+     * @param right   last position of the range (included)
+     * @param wanted  the position to fill
+     */
+    private static void select(int[] order, double[] centers, int axis, int left, int right, int wanted) {
+        while (left < right) {
+            double pivot = centers[3 * order[(left + right) >>> 1] + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[3 * order[i] + axis] < pivot) ++i;
+                while (centers[3 * order[j] + axis] > pivot) --j;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            if (wanted <= j)
+                right = j;
+            else if (wanted >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    @Override
+    public Vector getNormal(Point3D point) {
+        //look for the triangle of the point, the normal of a hit is found directly by its face
+        for (int face = 0; face < getFaceCount(); ++face) {
+            Vector normal = getFaceNormal(face);
+            Point3D a = getVertex(_indices[3 * face]);
+            if (!point.equals(a) && !isZero(point.subtract(a).dotProduct(normal)))
+                continue;
+            Ray ray = new Ray(point.add(normal), normal.scale(-1));
+            if (!Double.isNaN(intersectFace(face, ray, Double.POSITIVE_INFINITY, null)))
+                return normal;
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    @Override
+    public Vector getNormal(GeoPoint geoPoint) {
+        return geoPoint.face >= 0 ? getFaceNormal(geoPoint.face) : getNormal(geoPoint.getPoint());
+    }
+
+    /**
+     * Get the normal of a triangle, by the order of its vertices
+     *
+     * @param face index of the triangle
+     * @return the normal (normalized)
+     */
+    private Vector getFaceNormal(int face) {
+        Point3D a = getVertex(_indices[3 * face]);
+        Point3D b = getVertex(_indices[3 * face + 1]);
+        Point3D c = getVertex(_indices[3 * face + 2]);
+        return b.subtract(a).crossProduct(c.subtract(a)).normalize();
+    }
+
+    /**
+     * Get a vertex of the mesh
+     *
+     * @param index index of the vertex
+     * @return the vertex
+     */
+    private Point3D getVertex(int index) {
+        return new Point3D(_vertices[3 * index], _vertices[3 * index + 1], _vertices[3 * index + 2]);
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = new LinkedList<>();
+        traverse(ray, maxDistance, (face, t) -> {
+            result.add(createGeoPoint(ray, face, t));
+            return maxDistance;
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        int[] closestFace = {-1};
+        double t = traverse(ray, maxDistance, (face, distance) -> {
+            closestFace[0] = face;
+            return distance; //farther triangles are not searched anymore
+        });
+        return closestFace[0] < 0 ? null : createGeoPoint(ray, closestFace[0], t);
+    }
+
+    @Override
+    public double findTransparency(Ray ray, double maxDistance) {
+        double kT = getMaterial().kT;
+        double[] ktr = {1.0};
+        //a ray through an edge or a vertex hits all the faces around it, but crosses the surface once
+        List<Double> crossings = new ArrayList<>();
+        traverse(ray, maxDistance, (face, t) -> {
+            for (double crossing : crossings)
+                if (Math.abs(t - crossing) < SAME_CROSSING)
+                    return maxDistance;
+            crossings.add(t);
+            ktr[0] *= kT;
+            return ktr[0] == 0 ? -1 : maxDistance; //stop at the first hit of an opaque mesh
+        });
+        return ktr[0];
+    }
+
+    /**
+     * Create the GeoPoint of an intersection, with its barycentric coordinates on the triangle
+     *
+     * @param ray  the ray
+     * @param face index of the triangle
+     * @param t    distance of the intersection from the ray's head
+     * @return the GeoPoint
+     */
+    private GeoPoint createGeoPoint(Ray ray, int face, double t) {
+        GeoPoint geoPoint = new GeoPoint(this, ray, t);
+        geoPoint.face = face;
+        double[] barycentrics = new double[2];
+        intersectFace(face, ray, Double.POSITIVE_INFINITY, barycentrics);
+        geoPoint.u = barycentrics[0];
+        geoPoint.v = barycentrics[1];
+        return geoPoint;
+    }
+
+    /**
+     * Traverse the hierarchy with a ray, the nearer of two nodes first, and give every
+     * intersection before the max distance to a visitor
+     *
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersections
+     * @param visitor     receiver of the intersections
+     * @return the max distance of the search when it ended
+     */
+    private double traverse(Ray ray, double maxDistance, HitVisitor visitor) {
+        Point3D p0 = ray.get_p0();
+        Vector dir = ray.get_dir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        int[] stack = new int[MAX_DEPTH];
+        double[] stackDistance = new double[MAX_DEPTH];
+        int top = 0;
+        double rootDistance = findEntryDistance(0, ox, oy, oz, invX, invY, invZ, maxDistance);
+        if (rootDistance == Double.POSITIVE_INFINITY)
+            return maxDistance;
+        stack[top] = 0;
+        stackDistance[top++] = rootDistance;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (stackDistance[top] > maxDistance)
+                continue; //a closer intersection was found since the node was pushed
+
+            if (_nodeCount[node] > 0) {
+                for (int face = _nodeFirst[node]; face < _nodeFirst[node] + _nodeCount[node]; ++face) {
+                    double t = intersectFace(face, ray, maxDistance, null);
+                    if (!Double.isNaN(t)) {
+                        maxDistance = visitor.visit(face, t);
+                        if (maxDistance < 0)
+                            return maxDistance;
+                    }
+                }
+                continue;
+            }
+
+            int left = node + 1;
+            int right = _nodeFirst[node];
+            double leftDistance = findEntryDistance(left, ox, oy, oz, invX, invY, invZ, maxDistance);
+            double rightDistance = findEntryDistance(right, ox, oy, oz, invX, invY, invZ, maxDistance);
+            //push the farther node first so the nearer one is visited first
+            if (leftDistance > rightDistance) {
+                int tmp = left;
+                left = right;
+                right = tmp;
+                double tmpDistance = leftDistance;
+                leftDistance = rightDistance;
+                rightDistance = tmpDistance;
+            }
+            if (rightDistance != Double.POSITIVE_INFINITY) {
+                stack[top] = right;
+                stackDistance[top++] = rightDistance;
+            }
+            if (leftDistance != Double.POSITIVE_INFINITY) {
+                stack[top] = left;
+                stackDistance[top++] = leftDistance;
+            }
+        }
+        return maxDistance;
+    }
+
+    /**
+     * Find the distance where a ray enters the box of a node (slab method)
+     *
+     * @param node        the node
+     * @param ox          x of the ray's head
+     * @param oy          y of the ray's head
+     * @param oz          z of the ray's head
+     * @param invX        inverse of the x of the ray's direction
+     * @param invY        inverse of the y of the ray's direction
+     * @param invZ        inverse of the z of the ray's direction
+     * @param maxDistance max distance of the intersection
+     * @return the entry distance or positive infinity if the ray misses the box before the max distance
+     */
+    private double findEntryDistance(int node, double ox, double oy, double oz,
+                                     double invX, double invY, double invZ, double maxDistance) {
+        int b = 6 * node;
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        double t1 = (_nodeBounds[b] - BoundingBox.PADDING - ox) * invX;
+        double t2 = (_nodeBounds[b + 3] + BoundingBox.PADDING - ox) * invX;
+        tNear = Math.max(tNear, Math.min(t1, t2));
+        tFar = Math.min(tFar, Math.max(t1, t2));
+
+        t1 = (_nodeBounds[b + 1] - BoundingBox.PADDING - oy) * invY;
+        t2 = (_nodeBounds[b + 4] + BoundingBox.PADDING - oy) * invY;
+        tNear = Math.max(tNear, Math.min(t1, t2));
+        tFar = Math.min(tFar, Math.max(t1, t2));
+
+        t1 = (_nodeBounds[b + 2] - BoundingBox.PADDING - oz) * invZ;
+        t2 = (_nodeBounds[b + 5] + BoundingBox.PADDING - oz) * invZ;
+        tNear = Math.max(tNear, Math.min(t1, t2));
+        tFar = Math.min(tFar, Math.max(t1, t2));
+
+        return tNear <= tFar ? tNear : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Intersect a ray with a triangle of the mesh (Moller-Trumbore algorithm), the edges
+     * of the triangle are included so the neighbour triangles leave no crack
+     *
+     * @param face        index of the triangle
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersection
+     * @param barycentrics receives the barycentric coordinates (u, v) of the intersection, may be null
+     * @return the distance of the intersection or NaN if there is none
+     */
+    private double intersectFace(int face, Ray ray, double maxDistance, double[] barycentrics) {
+        int a = 3 * _indices[3 * face], b = 3 * _indices[3 * face + 1], c = 3 * _indices[3 * face + 2];
+        double e1x = _vertices[b] - _vertices[a], e1y = _vertices[b + 1] - _vertices[a + 1], e1z = _vertices[b + 2] - _vertices[a + 2];
+        double e2x = _vertices[c] - _vertices[a], e2y = _vertices[c + 1] - _vertices[a + 1], e2z = _vertices[c + 2] - _vertices[a + 2];
+
+        Vector dir = ray.get_dir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        //p = dir x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.NaN; //the ray is parallel to the triangle
+        double inv = 1 / det;
+
+        Point3D p0 = ray.get_p0();
+        double sx = p0.getX() - _vertices[a], sy = p0.getY() - _vertices[a + 1], sz = p0.getZ() - _vertices[a + 2];
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (u < 0 || u > 1)
+            return Double.NaN;
+
+        //q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v < 0 || u + v > 1)
+            return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        if (t <= 0 || t > maxDistance)
+            return Double.NaN;
+        if (barycentrics != null) {
+            barycentrics[0] = u;
+            barycentrics[1] = v;
+        }
+        return t;
+    }
+}
@@ -4,10 +4,11 @@ import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Tube class represents three-dimensional Tube in 3D Cartesian coordinate
@@ -24,6 +25,13 @@ public class Tube extends Geometry {
 
     protected final double _radius;
 
+    /**
+     * Head and direction of the axis and square of the radius, kept as raw doubles for the intersections
+     */
+    protected final double _axisX, _axisY, _axisZ;
+    protected final double _dirX, _dirY, _dirZ;
+    protected final double _radiusSquared;
+
     public double getRadius() {
         return _radius;
     }
@@ -35,6 +43,13 @@ public class Tube extends Geometry {
     public Tube(double radius, Ray axisRay) {
         this._radius = radius;
         _axisRay = axisRay;
+        _axisX = axisRay.get_p0().getX();
+        _axisY = axisRay.get_p0().getY();
+        _axisZ = axisRay.get_p0().getZ();
+        _dirX = axisRay.get_dir().getX();
+        _dirY = axisRay.get_dir().getY();
+        _dirZ = axisRay.get_dir().getZ();
+        _radiusSquared = radius * radius;
     }
 
     @Override
@@ -44,6 +59,15 @@ public class Tube extends Geometry {
         return point.subtract(o).normalize();
     }
 
+    /**
+     * A tube is infinite along its axis so it is unbounded
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     @Override
     public String toString() {
         return "Tube{" +
@@ -54,148 +78,72 @@ public class Tube extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
-        /*
-        The equation for a tube of radius r oriented along a line pa + vat:
-        (q - pa - (va,q - pa)va)2 - r2 = 0
-        get intersections using formula : (p - pa + vt - (va,p - pa + vt)va)^2 - r^2 = 0
-        reduces to at^2 + bt + c = 0
-        with a = (v - (v,va)va)^2
-             b = 2 * (v - (v,va)va,∆p - (∆p,va)va)
-             c = (∆p - (∆p,va)va)^2 - r^2
-        where  ∆p = p - pa
-        */
+        return findLateralIntersections(ray, maxDistance, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null);
+    }
 
+    /**
+     * Find the intersections of a ray with the surface of the tube between two heights on the axis.
+     * The equation for a tube of radius r oriented along a line pa + vat:
+     * (q - pa - (va,q - pa)va)^2 - r^2 = 0
+     * with q = p + vt it reduces to at^2 + bt + c = 0, using only the parts of v and
+     * deltaP = p - pa orthogonal to the axis:
+     * a = (v - (v,va)va)^2, b = 2 * (v - (v,va)va, deltaP - (deltaP,va)va), c = (deltaP - (deltaP,va)va)^2 - r^2
+     * It is solved on plain doubles, there is no vector that could be zero
+     *
+     * @param ray         the ray
+     * @param maxDistance max distance of the intersections
+     * @param minHeight   the points must be strictly above this height on the axis
+     * @param maxHeight   the points must be strictly under this height on the axis
+     * @param result      the intersections found before, null if there is none
+     * @return the intersections with the ones found on the surface, null if there is none
+     */
+    protected List<GeoPoint> findLateralIntersections(Ray ray, double maxDistance, double minHeight, double maxHeight,
+                                                      List<GeoPoint> result) {
+        Point3D p0 = ray.get_p0();
         Vector v = ray.get_dir();
-        Vector va = this.getAxisRay().get_dir();
-
-        //if vectors are parallel then there is no intersections possible
-        if (v.normalize().equals(va.normalize()))
-            return null;
-
-        //use of calculated variables to avoid vector ZERO
-        double vva;
-        double pva;
-        double a;
-        double b = 0;
-        double c = 0;
-
-        //check every variables to avoid ZERO vector
-        if (ray.get_p0().equals(this._axisRay.get_p0())){
-            vva = v.dotProduct(va);
-            if (vva == 0){
-                a = v.dotProduct(v);
-            }
-            else{
-                a = (v.substract(va.scale(vva))).dotProduct(v.substract(va.scale(vva)));
-            }
-            b = 0;
-            c = - _radius * _radius;
-        }
-        else{
-            Vector deltaP = ray.get_p0().subtract(this._axisRay.get_p0());
-            vva = v.dotProduct(va);
-            pva = deltaP.dotProduct(va);
-
-            if (vva == 0 && pva == 0){
-                a = v.dotProduct(v);
-                b = 2 * v.dotProduct(deltaP);
-                c = deltaP.dotProduct(deltaP) - _radius * _radius;
-            }
-            else if (vva == 0){
-                a = v.dotProduct(v);
-                Vector scale;
-                try {
-                    scale = va.scale(deltaP.dotProduct(va));
-                    if (deltaP.equals(scale)){
-                        b = 0;
-                        c = - _radius * _radius;
-                    }
-                    else{
-                        b = 2 * v.dotProduct(deltaP.substract(scale));
-                        c = (deltaP.substract(scale).dotProduct(deltaP.substract(scale))) - this._radius * this._radius;
-                    }
-                } catch (Exception e) {
-                    b = 2 * v.dotProduct(deltaP);
-                    c = (deltaP).dotProduct(deltaP) - this._radius * this._radius;
-                }
-            }
-            else if (pva == 0){
-                a = (v.substract(va.scale(vva))).dotProduct(v.substract(va.scale(vva)));
-                b = 2 * v.substract(va.scale(vva)).dotProduct(deltaP);
-                c = (deltaP.dotProduct(deltaP)) - this._radius * this._radius;
-            }
-            else {
-                Vector vSubstractScaleVa;
-                Vector scale;
-                try {
-                    vSubstractScaleVa = v.substract(va.scale(vva));
-
-                }
-                catch (Exception e){
-                    vSubstractScaleVa = v;
-                }
-                a = vSubstractScaleVa.dotProduct(vSubstractScaleVa);
-                try {
-                    scale = va.scale(deltaP.dotProduct(va));
-                    if (deltaP.equals(scale)){
-                        b = 0;
-                        c = - _radius * _radius;
-                    }
-                    else{
-                        b = 2 * vSubstractScaleVa.dotProduct(deltaP.substract(scale));
-                        c = (deltaP.substract(scale).dotProduct(deltaP.substract(scale))) - this._radius * this._radius;
-                    }
-                } catch (Exception e) {
-                    b = 2 * vSubstractScaleVa.dotProduct(deltaP);
-                    c = (deltaP.dotProduct(deltaP)) - this._radius * this._radius;
-                }
-
-            }
-        }
-
-        //calculate delta for result of equation
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double px = p0.getX() - _axisX, py = p0.getY() - _axisY, pz = p0.getZ() - _axisZ;
+        double vva = vx * _dirX + vy * _dirY + vz * _dirZ;
+        double pva = px * _dirX + py * _dirY + pz * _dirZ;
+
+        double ax = vx - vva * _dirX, ay = vy - vva * _dirY, az = vz - vva * _dirZ;
+        double a = ax * ax + ay * ay + az * az;
+        if (isZero(a))
+            return result; //the ray is parallel to the axis
+
+        double bx = px - pva * _dirX, by = py - pva * _dirY, bz = pz - pva * _dirZ;
+        double b = 2 * (ax * bx + ay * by + az * bz);
+        double c = bx * bx + by * by + bz * bz - _radiusSquared;
         double delta = b * b - 4 * a * c;
+        if (delta <= 0)
+            return result; //no intersections, or the line is tangent to the tube
+
+        //only t > 0 because t < 0 point is before the ray's start (a > 0 so t1 < t2), the direction
+        //of the ray is normalized so t is the distance from the ray's head
+        double sqrtDelta = Math.sqrt(delta);
+        double t1 = alignZero((-b - sqrtDelta) / (2 * a));
+        double t2 = alignZero((-b + sqrtDelta) / (2 * a));
+        double h1 = pva + t1 * vva;
+        if (t1 > 0 && t1 <= maxDistance && h1 > minHeight && h1 < maxHeight)
+            result = addIntersection(result, ray, t1);
+        double h2 = pva + t2 * vva;
+        if (t2 > 0 && t2 <= maxDistance && h2 > minHeight && h2 < maxHeight)
+            result = addIntersection(result, ray, t2);
+        return result;
+    }
 
-        if (delta <= 0){
-            return null; // no intersections
-        }
-        else{
-            //calculate points taking only those with t > 0
-            double t1 = alignZero((- b - Math.sqrt(delta)) / (2 * a));
-            double t2 = alignZero((- b + Math.sqrt(delta)) / (2 * a));
-            if (t1 > 0 && t2 > 0){
-                Point3D p1 = new Point3D(ray.getPoint(t1));
-                double distance1 = ray.get_p0().distance(p1);
-                Point3D p2 = new Point3D(ray.getPoint(t2));
-                double distance2 = ray.get_p0().distance(p2);
-                if (distance1 <= maxDistance && distance2 <= maxDistance){
-                    return List.of(new GeoPoint(this, p1), new GeoPoint(this, p2));
-                }
-                else if (distance1 <= maxDistance){
-                    return List.of(new GeoPoint(this, p1));
-                }
-                else if (distance2 <= maxDistance){
-                    return List.of(new GeoPoint(this, p2));
-                }
-                else{
-                    return null;
-                }
-            }
-            else if (t1 > 0){
-                Point3D p1 = new Point3D(ray.getPoint(t1));
-                double distance1 = ray.get_p0().distance(p1);
-                if (distance1 <= maxDistance){
-                    return List.of(new GeoPoint(this, p1));
-                }
-            }
-            else if (t2 > 0){
-                Point3D p2 = new Point3D(ray.getPoint(t2));
-                double distance2 = ray.get_p0().distance(p2);
-                if (distance2 <= maxDistance){
-                    return List.of(new GeoPoint(this, p2));
-                }
-            }
-        }
-        return null;
+    /**
+     * Add an intersection to the result, the list is created with the first intersection
+     *
+     * @param result the intersections found before, null if there is none
+     * @param ray    the ray
+     * @param t      distance of the intersection
+     * @return the intersections
+     */
+    protected List<GeoPoint> addIntersection(List<GeoPoint> result, Ray ray, double t) {
+        if (result == null)
+            result = new ArrayList<>(2);
+        result.add(new GeoPoint(this, ray, t));
+        return result;
     }
 }
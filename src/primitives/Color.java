@@ -146,6 +146,42 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Red component getter, without upper limit
+     *
+     * @return the red component
+     */
+    public double getRed() {
+        return r;
+    }
+
+    /**
+     * Green component getter, without upper limit
+     *
+     * @return the green component
+     */
+    public double getGreen() {
+        return g;
+    }
+
+    /**
+     * Blue component getter, without upper limit
+     *
+     * @return the blue component
+     */
+    public double getBlue() {
+        return b;
+    }
+
+    /**
+     * Relative luminance of the color (Rec. 709 weights of the components)
+     *
+     * @return the luminance, 255 for the printed white
+     */
+    public double getLuminance() {
+        return 0.2126 * r + 0.7152 * g + 0.0722 * b;
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
@@ -0,0 +1,53 @@
+package primitives;
+
+/**
+ * Counter based sampler: the n-th value of a pixel is a hash of the seed, the pixel and n,
+ * so there is no shared state between the threads
+ */
+public class CounterSampler implements Sampler {
+
+    /**
+     * Increment between two counters (golden ratio), as in SplitMix64
+     */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Key of the sequence (seed mixed with the pixel)
+     */
+    private final long _key;
+
+    /**
+     * Number of values already given
+     */
+    private long _counter = 0;
+
+    /**
+     * Constructor of the sampler of a seed
+     * @param seed the seed of the whole image
+     */
+    public CounterSampler(long seed) {
+        _key = mix(seed);
+    }
+
+    @Override
+    public Sampler forPixel(int col, int row) {
+        return new CounterSampler(_key ^ (((long) row << 32) | (col & 0xFFFFFFFFL)));
+    }
+
+    @Override
+    public double nextDouble() {
+        //keep the 53 high bits of the hash as the mantissa
+        return (mix(_key + GAMMA * ++_counter) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Mix the bits of a value (finalizer of SplitMix64)
+     * @param z the value
+     * @return the hash of the value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
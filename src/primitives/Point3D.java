@@ -2,6 +2,8 @@ package primitives;
 
 import java.util.Objects;
 
+import static primitives.Util.*;
+
 /**
  * Class to implement a Point in 3D in our model
  */
@@ -10,28 +12,27 @@ public class Point3D {
     /**
      * right coordinate
      */
-    final Coordinate _x;
+    final double _x;
     /**
      * up coordinate
      */
-    final Coordinate _y;
+    final double _y;
     /**
      * to coordinate
      */
-    final Coordinate _z;
+    final double _z;
 
     public final static Point3D ZERO = new Point3D(0.0, 0.0, 0.0);
 
     public Point3D(Coordinate _x, Coordinate _y, Coordinate _z) {
-        this._x = new Coordinate(_x.coord);
-        this._y = new Coordinate(_y.coord);
-        this._z = new Coordinate(_z.coord);
+        this(_x.coord, _y.coord, _z.coord);
     }
 
     public Point3D(double a, double b, double c) {
-        this._x = new Coordinate(a);
-        this._y = new Coordinate(b);
-        this._z = new Coordinate(c);
+        // if a coordinate is too close to zero make it zero
+        this._x = alignZero(a);
+        this._y = alignZero(b);
+        this._z = alignZero(c);
     }
     public Point3D(Point3D other){
 
@@ -57,9 +58,9 @@ public class Point3D {
      * @return the distance
      */
     public double distanceSquared(Point3D other) {
-        double d1 = _x.coord - other._x.coord;
-        double d2 = _y.coord - other._y.coord;
-        double d3 = _z.coord - other._z.coord;
+        double d1 = _x - other._x;
+        double d2 = _y - other._y;
+        double d3 = _z - other._z;
         return d1 * d1 + d2 * d2 + d3 * d3;
     }
 
@@ -70,10 +71,18 @@ public class Point3D {
      * @return the new point
      */
     public Point3D add(Vector vector) {
-        Point3D other = vector.getHead();
-        return new Point3D(_x.coord + other._x.coord,
-                _y.coord + other._y.coord,
-                _z.coord + other._z.coord);
+        return new Point3D(_x + vector._x, _y + vector._y, _z + vector._z);
+    }
+
+    /**
+     * adds a scaled vector to a point (point + vector * scale) without building the scaled vector
+     *
+     * @param vector the vector to add
+     * @param scale  the scale of the vector
+     * @return the new point
+     */
+    public Point3D add(Vector vector, double scale) {
+        return new Point3D(_x + vector._x * scale, _y + vector._y * scale, _z + vector._z * scale);
     }
 
     /**
@@ -83,7 +92,7 @@ public class Point3D {
      * @return the vector
      */
     public Vector subtract(Point3D other) {
-        return new Vector(_x.coord - other._x.coord, _y.coord - other._y.coord, _z.coord - other._z.coord);
+        return new Vector(_x - other._x, _y - other._y, _z - other._z);
     }
 
     @Override
@@ -95,7 +104,7 @@ public class Point3D {
         if (!(obj instanceof Point3D))
             return false;
         Point3D oth = (Point3D) obj;
-        return _x.equals(oth._x) && _y.equals(oth._y) && _z.equals(oth._z);
+        return isZero(_x - oth._x) && isZero(_y - oth._y) && isZero(_z - oth._z);
     }
 
     @Override
@@ -113,12 +122,12 @@ public class Point3D {
     }
 
     public double getX() {
-        return _x.coord;
+        return _x;
     }
 
     public double getY() {
-        return _y.coord;
+        return _y;
     }
 
-    public double getZ() { return _z.coord; }
+    public double getZ() { return _z; }
 }
@@ -34,7 +34,7 @@ public class Ray {
 
     public Ray(Point3D head, Vector direction, Vector normal) {
         double delta = direction.dotProduct(normal) >= 0 ? DELTA : -DELTA;
-        _p0 = head.add(normal.scale(delta));
+        _p0 = head.add(normal, delta);
         _dir = direction;
     }
 
@@ -55,14 +55,7 @@ public class Ray {
     public Point3D getPoint(double t) {
         if (t == 0)
             return _p0;
-        else {
-            try {
-                Point3D point = new Point3D(_p0).add(_dir.scale(t));
-                return point;
-            } catch (Exception exception) {
-                return null;
-            }
-        }
+        return _p0.add(_dir, t);
     }
 
     /**
@@ -101,7 +94,7 @@ public class Ray {
 
         for (var point : points
         ) {
-            if (_p0.distance(myPoint.point) > _p0.distance(point.point)) {
+            if (myPoint.t > point.t) {
                 myPoint = point;
             }
         }
@@ -0,0 +1,207 @@
+package primitives;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Patterns of the sample points spread over a pixel or over the aperture of the camera.
+ * The points are given in the unit square, every pattern uses the sampler of the pixel
+ * so two pixels never share the same points
+ */
+public enum SamplePattern {
+
+    /**
+     * One random point in every cell of a n*m grid (jittered grid)
+     */
+    STRATIFIED,
+
+    /**
+     * Halton sequence in bases 2 and 3, randomly shifted for every pixel
+     */
+    HALTON,
+
+    /**
+     * Sobol (0,2)-sequence, randomly scrambled for every pixel
+     */
+    SOBOL,
+
+    /**
+     * Precomputed blue noise tile (best candidate points), randomly shifted for every pixel
+     */
+    BLUE_NOISE;
+
+    /**
+     * Number of candidates for every point already in the blue noise tile
+     */
+    private static final int CANDIDATES = 10;
+
+    /**
+     * Blue noise tiles already built, by number of points
+     */
+    private static final Map<Integer, double[]> BLUE_NOISE_TILES = new ConcurrentHashMap<>();
+
+    /**
+     * Generate the points of the pattern
+     *
+     * @param n       number of rows of the grid
+     * @param m       number of columns of the grid
+     * @param sampler random values of the pixel
+     * @return n*m points as (x, y) pairs in [0, 1)
+     */
+    public double[] generate(int n, int m, Sampler sampler) {
+        int count = n * m;
+        double[] points = new double[2 * count];
+        switch (this) {
+            case STRATIFIED -> {
+                int k = 0;
+                for (int i = 0; i < n; ++i)
+                    for (int j = 0; j < m; ++j) {
+                        points[k++] = (j + sampler.nextDouble()) / m;
+                        points[k++] = (i + sampler.nextDouble()) / n;
+                    }
+            }
+            case HALTON -> {
+                double shiftX = sampler.nextDouble();
+                double shiftY = sampler.nextDouble();
+                for (int k = 0; k < count; ++k) {
+                    points[2 * k] = wrap(radicalInverse(k, 2) + shiftX);
+                    points[2 * k + 1] = wrap(radicalInverse(k, 3) + shiftY);
+                }
+            }
+            case SOBOL -> {
+                //random digital shift keeps the points stratified
+                int scrambleX = (int) (sampler.nextDouble() * 0x1.0p32);
+                int scrambleY = (int) (sampler.nextDouble() * 0x1.0p32);
+                for (int k = 0; k < count; ++k) {
+                    points[2 * k] = toUnit(Integer.reverse(k) ^ scrambleX);
+                    points[2 * k + 1] = toUnit(sobol2(k) ^ scrambleY);
+                }
+            }
+            case BLUE_NOISE -> {
+                double[] tile = BLUE_NOISE_TILES.computeIfAbsent(count, SamplePattern::buildBlueNoiseTile);
+                double shiftX = sampler.nextDouble();
+                double shiftY = sampler.nextDouble();
+                for (int k = 0; k < count; ++k) {
+                    points[2 * k] = wrap(tile[2 * k] + shiftX);
+                    points[2 * k + 1] = wrap(tile[2 * k + 1] + shiftY);
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Generate a single point of the progressive sequence of the pattern, for the renderings that
+     * add the points one by one. The k-th point of HALTON and SOBOL is their k-th point in
+     * {@link #generate(int, int, Sampler)}, so the first points are always well spread;
+     * STRATIFIED and BLUE_NOISE have no progressive order and give an independent random point
+     *
+     * @param k       index of the point
+     * @param sampler random values of the pixel, a new sampler of the same pixel for every point
+     * @return the point as a (x, y) pair in [0, 1)
+     */
+    public double[] generatePoint(int k, Sampler sampler) {
+        return switch (this) {
+            case HALTON -> {
+                double shiftX = sampler.nextDouble();
+                double shiftY = sampler.nextDouble();
+                yield new double[]{wrap(radicalInverse(k, 2) + shiftX), wrap(radicalInverse(k, 3) + shiftY)};
+            }
+            case SOBOL -> {
+                int scrambleX = (int) (sampler.nextDouble() * 0x1.0p32);
+                int scrambleY = (int) (sampler.nextDouble() * 0x1.0p32);
+                yield new double[]{toUnit(Integer.reverse(k) ^ scrambleX), toUnit(sobol2(k) ^ scrambleY)};
+            }
+            case STRATIFIED, BLUE_NOISE -> {
+                Sampler pointSampler = sampler.forPixel(k, 0);
+                yield new double[]{pointSampler.nextDouble(), pointSampler.nextDouble()};
+            }
+        };
+    }
+
+    /**
+     * Get the radical inverse of an index: its digits in a base mirrored around the decimal point
+     *
+     * @param index the index
+     * @param base  the base
+     * @return value in [0, 1)
+     */
+    private static double radicalInverse(int index, int base) {
+        double inverse = 0;
+        double digitValue = 1d / base;
+        while (index > 0) {
+            inverse += (index % base) * digitValue;
+            index /= base;
+            digitValue /= base;
+        }
+        return inverse;
+    }
+
+    /**
+     * Get the second dimension of the Sobol sequence
+     *
+     * @param index the index
+     * @return the 32 bits of the value
+     */
+    private static int sobol2(int index) {
+        int result = 0;
+        for (int v = 1 << 31; index != 0; index >>>= 1, v ^= v >>> 1)
+            if ((index & 1) != 0)
+                result ^= v;
+        return result;
+    }
+
+    /**
+     * Convert 32 bits to a value
+     *
+     * @param bits the bits (unsigned)
+     * @return value in [0, 1)
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+    }
+
+    /**
+     * Wrap a value of [0, 2) into [0, 1)
+     *
+     * @param value the value
+     * @return the value in [0, 1)
+     */
+    private static double wrap(double value) {
+        return value >= 1 ? value - 1 : value;
+    }
+
+    /**
+     * Build a blue noise tile by Mitchell's best candidate algorithm: every new point is the
+     * candidate farthest from the points already chosen. Distances wrap around the unit square,
+     * so the tile stays blue noise once shifted
+     *
+     * @param count number of points
+     * @return the points as (x, y) pairs in [0, 1)
+     */
+    private static double[] buildBlueNoiseTile(int count) {
+        Sampler sampler = new CounterSampler(count);
+        double[] tile = new double[2 * count];
+        for (int k = 0; k < count; ++k) {
+            double bestDistance = -1;
+            for (int c = 0; c < CANDIDATES * k + 1; ++c) {
+                double x = sampler.nextDouble();
+                double y = sampler.nextDouble();
+                double distance = Double.POSITIVE_INFINITY;
+                for (int p = 0; p < k; ++p) {
+                    double dx = Math.abs(x - tile[2 * p]);
+                    double dy = Math.abs(y - tile[2 * p + 1]);
+                    dx = Math.min(dx, 1 - dx);
+                    dy = Math.min(dy, 1 - dy);
+                    distance = Math.min(distance, dx * dx + dy * dy);
+                }
+                if (distance > bestDistance) {
+                    bestDistance = distance;
+                    tile[2 * k] = x;
+                    tile[2 * k + 1] = y;
+                }
+            }
+        }
+        return tile;
+    }
+}
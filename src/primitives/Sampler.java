@@ -0,0 +1,23 @@
+package primitives;
+
+/**
+ * Interface to implement a source of random numbers for the stochastic rays.
+ * A sampler gives an independent sampler to every pixel, so the rendered image
+ * depends only on the seed and not on the number of threads or the order of the pixels
+ */
+public interface Sampler {
+
+    /**
+     * Get the sampler of a pixel, its values depend only on this sampler and on the pixel
+     * @param col column of the pixel
+     * @param row row of the pixel
+     * @return a new sampler owned by the caller
+     */
+    Sampler forPixel(int col, int row);
+
+    /**
+     * Get the next random value of the sampler
+     * @return value in [0, 1)
+     */
+    double nextDouble();
+}
@@ -2,7 +2,7 @@ package primitives;
 
 import java.util.Objects;
 
-import static primitives.Point3D.ZERO;
+import static primitives.Util.*;
 
 /**
  * Class to implement a vector in our model
@@ -10,24 +10,28 @@ import static primitives.Point3D.ZERO;
 public class Vector {
 
     /**
-     * Head of the vector
+     * Coordinates of the head of the vector, kept as raw numbers so an operation
+     * only allocates the result vector
      */
-    private Point3D head;
+    double _x, _y, _z;
 
     public Vector(double a, double b, double c) {
-        head = new Point3D(a, b, c);
-        if (head.equals(ZERO))
+        // if a coordinate is too close to zero make it zero
+        _x = alignZero(a);
+        _y = alignZero(b);
+        _z = alignZero(c);
+        if (_x == 0 && _y == 0 && _z == 0)
             throw new IllegalArgumentException("Zero vector is forbidden !");
     }
 
     public Vector(Coordinate x, Coordinate y, Coordinate z) {
-        head = new Point3D(x, y, z);
-        if (head.equals(ZERO))
-            throw new IllegalArgumentException("Zero vector is forbidden !");
+        this(x.coord, y.coord, z.coord);
     }
 
     public Vector(Point3D head) {
-        this.head = new Point3D(head._x, head._y, head._z);
+        _x = head._x;
+        _y = head._y;
+        _z = head._z;
     }
 
     /**
@@ -38,9 +42,7 @@ public class Vector {
      */
 
     public Vector add(Vector other) {
-        return new Vector(this.head._x.coord + other.head._x.coord,
-                this.head._y.coord + other.head._y.coord,
-                this.head._z.coord + other.head._z.coord);
+        return new Vector(_x + other._x, _y + other._y, _z + other._z);
 
     }
 
@@ -52,9 +54,7 @@ public class Vector {
      */
     public Vector substract(Vector other) {
 
-        return new Vector(this.head._x.coord - other.head._x.coord,
-                this.head._y.coord - other.head._y.coord,
-                this.head._z.coord - other.head._z.coord);
+        return new Vector(_x - other._x, _y - other._y, _z - other._z);
     }
 
     /**
@@ -64,14 +64,24 @@ public class Vector {
      * @return result vector
      */
     public Vector scale(double scale) {
-        return new Vector(this.head._x.coord * scale,
-                this.head._y.coord * scale,
-                this.head._z.coord * scale);
+        return new Vector(_x * scale, _y * scale, _z * scale);
 
     }
 
     public Point3D getHead() {
-        return head;
+        return new Point3D(_x, _y, _z);
+    }
+
+    public double getX() {
+        return _x;
+    }
+
+    public double getY() {
+        return _y;
+    }
+
+    public double getZ() {
+        return _z;
     }
 
     /**
@@ -80,7 +90,10 @@ public class Vector {
      * @return the vector normalized
      */
     public Vector normalize() {
-        this.head = new Point3D(head._x.coord / length(), head._y.coord / length(), head._z.coord / length());
+        double length = length();
+        _x = alignZero(_x / length);
+        _y = alignZero(_y / length);
+        _z = alignZero(_z / length);
         return this;
     }
 
@@ -90,9 +103,7 @@ public class Vector {
      * @return normalized new vector
      */
     public Vector normalized() {
-        return new Vector(head._x.coord,
-                head._y.coord,
-                head._z.coord).normalize();
+        return new Vector(_x, _y, _z).normalize();
     }
 
     /**
@@ -102,8 +113,7 @@ public class Vector {
      * @return result of dot product
      */
     public double dotProduct(Vector other) {
-        return head._x.coord * other.head._x.coord + head._y.coord * other.head._y.coord
-                + head._z.coord * other.head._z.coord;
+        return _x * other._x + _y * other._y + _z * other._z;
     }
 
     /**
@@ -113,9 +123,9 @@ public class Vector {
      * @return vector that is result of cross product
      */
     public Vector crossProduct(Vector other) {
-        return new Vector(head._y.coord * other.head._z.coord - head._z.coord * other.head._y.coord,
-                head._z.coord * other.head._x.coord - head._x.coord * other.head._z.coord,
-                head._x.coord * other.head._y.coord - head._y.coord * other.head._x.coord);
+        return new Vector(_y * other._z - _z * other._y,
+                _z * other._x - _x * other._z,
+                _x * other._y - _y * other._x);
     }
 
     /**
@@ -133,7 +143,7 @@ public class Vector {
      * @return squared length
      */
     public double lengthSquared() {
-        return ZERO.distanceSquared(head);
+        return _x * _x + _y * _y + _z * _z;
     }
 
     /***
@@ -153,12 +163,12 @@ public class Vector {
         //Variables used in computing
         double x, y, z;
         double u, v, w;
-        x = this.head.getX();
-        y = this.head.getY();
-        z = this.head.getZ();
-        u = axis.head.getX();
-        v = axis.head.getY();
-        w = axis.head.getZ();
+        x = _x;
+        y = _y;
+        z = _z;
+        u = axis._x;
+        v = axis._y;
+        w = axis._z;
         double v1 = u * x + v * y + w * z;
 
         //Convert degrees to Rad
@@ -179,7 +189,9 @@ public class Vector {
                 + z * Math.cos(thetaRad)
                 + (-v * x + u * y) * Math.sin(thetaRad);
 
-        this.head = new Point3D(xPrime, yPrime, zPrime);
+        _x = alignZero(xPrime);
+        _y = alignZero(yPrime);
+        _z = alignZero(zPrime);
     }
 
     @Override
@@ -187,18 +199,18 @@ public class Vector {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Vector vector = (Vector) o;
-        return head.equals(vector.head);
+        return isZero(_x - vector._x) && isZero(_y - vector._y) && isZero(_z - vector._z);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(head);
+        return Objects.hash(_x, _y, _z);
     }
 
     @Override
     public String toString() {
         return "Vector{" +
-                "head=" + head +
+                "head=" + getHead() +
                 '}';
     }
 
@@ -0,0 +1,143 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * Cost of the rendering of every pixel of an image: its time, the number of rays traced from the
+ * camera for it and the depth reached by the adaptive anti-aliasing. Every cost is written as a false
+ * color image (blue for the cheapest pixels, through green and yellow, to red for the most
+ * expensive ones) to show the regions of the scene where the rendering time goes
+ *
+ * @author Hillel, Yona
+ */
+public class CostHeatmap {
+
+    /**
+     * Percentile of the costs taken as the top of the color scale, so a few slow pixels
+     * (the first ones, before the JIT compiles the tracer) do not flatten the rest of the map
+     */
+    private static final double SCALE_PERCENTILE = 0.99;
+
+    /**
+     * Stops of the color scale, from the cheapest to the most expensive
+     */
+    private static final Color[] SCALE = {
+            new Color(0, 0, 128), new Color(0, 0, 255), new Color(0, 255, 255),
+            new Color(0, 255, 0), new Color(255, 255, 0), new Color(255, 0, 0)};
+
+    private final int _nX;
+    private final int _nY;
+
+    /**
+     * Costs of the pixels, row after row
+     */
+    private final long[] _nanos;
+    private final int[] _rays;
+    private final int[] _depths;
+
+    /**
+     * Constructor of an empty map
+     *
+     * @param nX number of pixels in a row
+     * @param nY number of pixels in a column
+     */
+    public CostHeatmap(int nX, int nY) {
+        _nX = nX;
+        _nY = nY;
+        _nanos = new long[nX * nY];
+        _rays = new int[nX * nY];
+        _depths = new int[nX * nY];
+    }
+
+    /**
+     * Record the cost of a pixel, every pixel is recorded by a single thread
+     *
+     * @param col   column of the pixel
+     * @param row   row of the pixel
+     * @param nanos rendering time of the pixel (ns)
+     * @param rays  number of rays traced from the camera for the pixel
+     * @param depth depth reached by the adaptive anti-aliasing, 0 without subdivision
+     */
+    void record(int col, int row, long nanos, int rays, int depth) {
+        int index = row * _nX + col;
+        _nanos[index] = nanos;
+        _rays[index] = rays;
+        _depths[index] = depth;
+    }
+
+    public long getNanos(int col, int row) {
+        return _nanos[row * _nX + col];
+    }
+
+    public int getRays(int col, int row) {
+        return _rays[row * _nX + col];
+    }
+
+    public int getDepth(int col, int row) {
+        return _depths[row * _nX + col];
+    }
+
+    /**
+     * Write the maps of the time, of the rays and, if the adaptive anti-aliasing subdivided
+     * any pixel, of the depth, as the images [name]-cost-time, [name]-cost-rays and [name]-cost-depth
+     *
+     * @param imageName name of the rendered image
+     */
+    public void writeToImages(String imageName) {
+        //the times spread over orders of magnitude, they are scaled by their logarithm
+        double[] values = new double[_nanos.length];
+        for (int i = 0; i < values.length; ++i)
+            values[i] = Math.log1p(_nanos[i]);
+        writeToImage(imageName + "-cost-time", values);
+
+        boolean subdivided = false;
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = _rays[i];
+            subdivided |= _depths[i] > 0;
+        }
+        writeToImage(imageName + "-cost-rays", values);
+
+        if (subdivided) {
+            for (int i = 0; i < values.length; ++i)
+                values[i] = _depths[i];
+            writeToImage(imageName + "-cost-depth", values);
+        }
+    }
+
+    /**
+     * Write a cost of the pixels as a false color image
+     *
+     * @param imageName name of the image
+     * @param values    the cost of every pixel, row after row
+     */
+    private void writeToImage(String imageName, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double min = sorted[0];
+        double max = sorted[(int) Math.floor(SCALE_PERCENTILE * (sorted.length - 1))];
+
+        ImageWriter imageWriter = new ImageWriter(imageName, _nX, _nY);
+        for (int row = 0; row < _nY; ++row)
+            for (int col = 0; col < _nX; ++col)
+                imageWriter.writePixel(col, row, toColor(values[row * _nX + col], min, max));
+        imageWriter.writeToImage();
+    }
+
+    /**
+     * Get the color of a cost on the scale
+     *
+     * @param value the cost
+     * @param min   cost at the bottom of the scale
+     * @param max   cost at the top of the scale
+     * @return the color
+     */
+    static Color toColor(double value, double min, double max) {
+        double position = max <= min ? 0 : Math.min(1, Math.max(0, (value - min) / (max - min)));
+        double scaled = position * (SCALE.length - 1);
+        int stop = Math.min((int) scaled, SCALE.length - 2);
+        double ratio = scaled - stop;
+        return SCALE[stop].scale(1 - ratio).add(SCALE[stop + 1].scale(ratio));
+    }
+}
@@ -0,0 +1,22 @@
+package renderer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the writing of an image file, its duration is the writing time
+ *
+ * @author Hillel, Yona
+ */
+@Name("renderer.ImageWrite")
+@Label("Image Write")
+@Category("Ray Tracer")
+@Description("Writing of a rendered image file")
+class ImageWriteEvent extends Event {
+
+    @Label("Image")
+    String image;
+}
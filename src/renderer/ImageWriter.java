@@ -13,7 +13,10 @@ import javax.imageio.*;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution.
+ * The pixels are kept as floating point colors without upper limit, they are
+ * converted to 8 bits by the exposure and the tone mapper only when the image is
+ * produced
  * 
  * @author Dan
  */
@@ -23,8 +26,17 @@ public class ImageWriter {
 
 	private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
-	private BufferedImage image;
+	/**
+	 * Colors of the pixels as (r, g, b) triples, row after row
+	 */
+	private final float[] pixels;
 	private String imageName;
+
+	/**
+	 * Factor of the colors before the tone mapping (2 ^ exposure)
+	 */
+	private double exposureScale = 1;
+	private ToneMapper toneMapper = ToneMapper.CLAMP;
 	
 	private Logger logger = Logger.getLogger("ImageWriter");
 
@@ -42,7 +54,7 @@ public class ImageWriter {
 		this.nX = nX;
 		this.nY = nY;
 
-		image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		pixels = new float[3 * nX * nY];
 	}
 
 	// ***************** Getters/Setters ********************** //
@@ -64,6 +76,40 @@ public class ImageWriter {
 		return nX;
 	}
 
+	/**
+	 * Name of the image file (without extension)
+	 * 
+	 * @return the name of the image
+	 */
+	public String getImageName() {
+		return imageName;
+	}
+
+	/**
+	 * Set the exposure of the image: the colors are multiplied by 2 ^ exposure
+	 * before the tone mapping
+	 * 
+	 * @param exposure the exposure in stops, 0 to keep the colors
+	 * @return the image writer itself
+	 */
+	public ImageWriter setExposure(double exposure) {
+		exposureScale = Math.pow(2, exposure);
+		return this;
+	}
+
+	/**
+	 * Set the conversion of the colors to 8 bits, {@link ToneMapper#CLAMP} by default
+	 * 
+	 * @param toneMapper the tone mapper
+	 * @return the image writer itself
+	 */
+	public ImageWriter setToneMapper(ToneMapper toneMapper) {
+		if (toneMapper == null)
+			throw new IllegalArgumentException("The tone mapper is missing");
+		this.toneMapper = toneMapper;
+		return this;
+	}
+
 	// ***************** Operations ******************** //
 
 	/**
@@ -75,12 +121,29 @@ public class ImageWriter {
 
 			File file = new File(FOLDER_PATH + '/' + imageName + ".png");
 			file.mkdirs();
-			ImageIO.write(image, "png", file);
+			ImageIO.write(toBufferedImage(), "png", file);
 		} catch (IOException e) {
 			logger.log(Level.SEVERE, "I/O error", e);
 		}
 	}
 
+	/**
+	 * Produce the 8 bits image of the pixel color matrix by the exposure and the tone mapper
+	 * 
+	 * @return the image
+	 */
+	public BufferedImage toBufferedImage() {
+		BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		int[] row = new int[nX];
+		float scale = (float) exposureScale;
+		for (int y = 0; y < nY; ++y) {
+			for (int x = 0, index = 3 * y * nX; x < nX; ++x, index += 3)
+				row[x] = toneMapper.map(pixels[index] * scale, pixels[index + 1] * scale, pixels[index + 2] * scale);
+			image.setRGB(0, y, nX, 1, row, 0, nX);
+		}
+		return image;
+	}
+
 	/**
 	 * The function writePixel writes a color of a specific pixel into pixel color
 	 * matrix
@@ -90,7 +153,38 @@ public class ImageWriter {
 	 * @param color  final color of the pixel
 	 */
 	public void writePixel(int xIndex, int yIndex, Color color) {
-		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+		int index = 3 * (yIndex * nX + xIndex);
+		pixels[index] = (float) color.getRed();
+		pixels[index + 1] = (float) color.getGreen();
+		pixels[index + 2] = (float) color.getBlue();
+	}
+
+	/**
+	 * Add a sample to a pixel of the pixel color matrix: the pixel holds the mean of
+	 * its samples, so the image can be written after every sample of the pixels
+	 * 
+	 * @param xIndex  X axis index of the pixel
+	 * @param yIndex  Y axis index of the pixel
+	 * @param color   color of the sample
+	 * @param samples number of the samples of the pixel with this one
+	 */
+	public void addSample(int xIndex, int yIndex, Color color, int samples) {
+		int index = 3 * (yIndex * nX + xIndex);
+		pixels[index] += ((float) color.getRed() - pixels[index]) / samples;
+		pixels[index + 1] += ((float) color.getGreen() - pixels[index + 1]) / samples;
+		pixels[index + 2] += ((float) color.getBlue() - pixels[index + 2]) / samples;
+	}
+
+	/**
+	 * Read the color of a specific pixel of the pixel color matrix, before the tone mapping
+	 * 
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the color of the pixel
+	 */
+	public Color readPixel(int xIndex, int yIndex) {
+		int index = 3 * (yIndex * nX + xIndex);
+		return new Color(pixels[index], pixels[index + 1], pixels[index + 2]);
 	}
 
 }
@@ -14,10 +14,25 @@ public abstract class RayTracerBase {
      */
     protected Scene _scene;
 
+    /**
+     * Statistics of the running rendering, null out of a rendering
+     */
+    protected RenderStats _stats;
+
     public RayTracerBase(Scene scene) {
         this._scene = scene;
     }
 
+    /**
+     * Set the statistics the traced rays are recorded in, with the detailed statistics the
+     * intersection tests of the scene's geometries are counted too
+     * @param stats the statistics, null to stop recording
+     */
+    void setStats(RenderStats stats) {
+        _stats = stats;
+        _scene.geometries.setTestCounter(stats != null && stats.isDetailed() ? stats::countIntersectionTest : null);
+    }
+
     /**
      * This function trace's the ray and returns the color given by the scene's model
      * @param ray tracing ray
@@ -8,6 +8,7 @@ import scene.Scene;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Class to implement rayTracing between the camera rays and the scene
@@ -20,10 +21,57 @@ public class RayTracerBasic extends RayTracerBase {
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
 
+    /**
+     * Source of the random numbers of the Russian roulette, a sampler is taken for every
+     * primary ray so the image does not depend on the threads
+     */
+    private static final Sampler ROULETTE_SAMPLER = new CounterSampler(0);
+
+    /**
+     * Is the adaptive sampling of the soft shadows used, off by default as the probes on the
+     * outline and the center of the light miss an occluder hiding only a part of its inside
+     */
+    private boolean _adaptiveSoftShadows = false;
+
+    /**
+     * Weight under which the secondary rays play the Russian roulette, 0 when it is not used
+     */
+    private double _russianRoulette = 0;
+
     public RayTracerBasic(Scene scene) {
         super(scene);
     }
 
+    /**
+     * Set the adaptive sampling of the soft shadows: the probe points of an area light (its outline
+     * seen from the point and its center) are traced first and the sample points are traced only
+     * if the probes do not agree, otherwise the point is taken as fully lit or fully in the umbra
+     *
+     * @param adaptiveSoftShadows true to use the adaptive sampling
+     * @return the tracer itself
+     */
+    public RayTracerBasic setAdaptiveSoftShadows(boolean adaptiveSoftShadows) {
+        _adaptiveSoftShadows = adaptiveSoftShadows;
+        return this;
+    }
+
+    /**
+     * Set the Russian roulette on the secondary rays: a reflected or refracted ray with a weight
+     * under the threshold is traced only with the probability weight / threshold, and then with
+     * the threshold as weight, so the image stays the same on average (unbiased) instead of
+     * losing the light of all the rays cut under MIN_CALC_COLOR_K
+     *
+     * @param threshold weight under which the roulette is played, 0 to cut the rays at MIN_CALC_COLOR_K
+     * @return the tracer itself
+     * @throws IllegalArgumentException if the threshold is not between 0 and 1
+     */
+    public RayTracerBasic setRussianRoulette(double threshold) {
+        if (threshold < 0 || threshold > 1)
+            throw new IllegalArgumentException("The threshold of the Russian roulette must be between 0 and 1");
+        _russianRoulette = threshold;
+        return this;
+    }
+
     /**
      * Get color of the intersection of the ray with the scene
      *
@@ -33,10 +81,11 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray, boolean isSoftShadows) {
+        if (_stats != null)
+            _stats.countPrimaryRay();
 
-        List<GeoPoint> myPoints = _scene.geometries.findGeoIntersections(ray);
-        if (myPoints != null) {
-            GeoPoint myPoint = ray.getClosestGeoPoint(myPoints);
+        GeoPoint myPoint = findClosestIntersection(ray);
+        if (myPoint != null) {
             return calcColor(myPoint, ray, isSoftShadows);
         }
         return _scene.background;
@@ -44,7 +93,10 @@ public class RayTracerBasic extends RayTracerBase {
 
 
     /**
-     * Calculate color using recursive function
+     * Calculate the color of the tree of rays starting at a point, without recursion: the points
+     * waiting to be calculated are kept on an explicit stack with their level and their weight
+     * (product of the kR and kT factors from the camera). The tree is walked in depth, so the
+     * stack never holds more than one point per level
      *
      * @param geopoint the point of intersection
      * @param ray      the ray
@@ -52,57 +104,96 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color
      */
     private Color calcColor(GeoPoint geopoint, Ray ray, boolean isSoftShadows) {
-        return calcColor(geopoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, isSoftShadows)
-                .add(_scene.ambientLight.getIntensity());
+        GeoPoint[] points = new GeoPoint[MAX_CALC_COLOR_LEVEL];
+        Ray[] rays = new Ray[MAX_CALC_COLOR_LEVEL];
+        int[] levels = new int[MAX_CALC_COLOR_LEVEL];
+        double[] weights = new double[MAX_CALC_COLOR_LEVEL];
+        Sampler sampler = _russianRoulette > 0 ? getRouletteSampler(ray) : null;
+
+        points[0] = geopoint;
+        rays[0] = ray;
+        levels[0] = MAX_CALC_COLOR_LEVEL;
+        weights[0] = INITIAL_K;
+        int top = 1;
+
+        Color color = Color.BLACK;
+        while (top > 0) {
+            --top;
+            GeoPoint point = points[top];
+            Ray inRay = rays[top];
+            int level = levels[top];
+            double k = weights[top];
+
+            color = color.add(point.geometry.getEmission()
+                    .add(calcLocalEffects(point, inRay, k, isSoftShadows)).scale(k));
+            if (level == 1)
+                continue;
+
+            //global effects: the refracted ray is pushed first so the reflected one is followed first
+            Material material = point.geometry.getMaterial();
+            Vector n = point.getNormal();
+            double kkt = getSecondaryWeight(k * material.kT, sampler);
+            if (kkt > 0) {
+                Ray refractedRay = constructRefractedRay(n, point.getPoint(), inRay);
+                if (_stats != null)
+                    _stats.countRefractionRay();
+                GeoPoint refractedPoint = findClosestIntersection(refractedRay);
+                if (refractedPoint != null) {
+                    points[top] = refractedPoint;
+                    rays[top] = refractedRay;
+                    levels[top] = level - 1;
+                    weights[top++] = kkt;
+                }
+            }
+            double kkr = getSecondaryWeight(k * material.kR, sampler);
+            if (kkr > 0) {
+                Ray reflectedRay = constructReflectedRay(n, point.getPoint(), inRay);
+                if (_stats != null)
+                    _stats.countReflectionRay();
+                GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
+                if (reflectedPoint != null) {
+                    points[top] = reflectedPoint;
+                    rays[top] = reflectedRay;
+                    levels[top] = level - 1;
+                    weights[top++] = kkr;
+                }
+            }
+        }
+        return color.add(_scene.ambientLight.getIntensity());
     }
 
     /**
-     * Get the color of an intersection point using the Phong model
-     * Recursive function
+     * Get the weight of a secondary ray, or 0 if the ray is not traced
      *
-     * @param geoPoint point of intersection
-     * @param isSoftShadows is rendering with soft shadows improvement
-     * @return Color of the intersection point
+     * @param weight weight of the ray (product of the kR and kT factors from the camera)
+     * @param sampler sampler of the Russian roulette, null if it is not used
+     * @return the weight to trace the ray with, 0 if it is cut
      */
-    private Color calcColor(GeoPoint geoPoint, Ray ray, int level, double k , boolean isSoftShadows) {
-        Color color = geoPoint.geometry.getEmission()
-                .add(calcLocalEffects(geoPoint, ray, k, isSoftShadows));
-        return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, ray, level, k, isSoftShadows));
+    private double getSecondaryWeight(double weight, Sampler sampler) {
+        if (sampler == null || weight >= _russianRoulette)
+            return weight > MIN_CALC_COLOR_K ? weight : 0;
+        if (weight <= 0)
+            return 0;
+        //the ray survives with the probability weight / threshold, its weight is divided by it
+        return sampler.nextDouble() * _russianRoulette < weight ? _russianRoulette : 0;
     }
 
     /**
-     * Calculate global effect of the light on the color
+     * Get the sampler of the Russian roulette for a primary ray, its values depend only on the ray
      *
-     * @param geopoint the point
-     * @param inRay    the ray
-     * @param level    level
-     * @param k
-     * @param isSoftShadows is rendering with soft shadows improvement
-     * @return the color
+     * @param ray the primary ray
+     * @return the sampler
      */
-    private Color calcGlobalEffects(GeoPoint geopoint, Ray inRay, int level, double k, boolean isSoftShadows) {
-        Color color = Color.BLACK;
-        Material material = geopoint.geometry.getMaterial();
-        double kr = material.kR;
-        double kkr = k * kr;
-        Vector n = geopoint.geometry.getNormal(geopoint.point);
-        if (kkr > MIN_CALC_COLOR_K) {
-            Ray reflectedRay = constructReflectedRay(n, geopoint.point, inRay);
-            GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
-            if (reflectedPoint != null){
-                color = color.add(calcColor(reflectedPoint, reflectedRay, level - 1, kkr, isSoftShadows).scale(kr));
-            }
-        }
-        double kt = material.kT;
-        double kkt = k * kt;
-        if (kkt > MIN_CALC_COLOR_K) {
-            Ray refractedRay = constructRefractedRay(n, geopoint.point, inRay);
-            GeoPoint refractedPoint = findClosestIntersection(refractedRay);
-            if (refractedPoint != null){
-                color = color.add(calcColor(refractedPoint, refractedRay, level - 1, kkt, isSoftShadows).scale(kt));
-            }
-        }
-        return color;
+    private static Sampler getRouletteSampler(Ray ray) {
+        Point3D p0 = ray.get_p0();
+        Vector dir = ray.get_dir();
+        long hash = Double.doubleToLongBits(p0.getX());
+        hash = 31 * hash + Double.doubleToLongBits(p0.getY());
+        hash = 31 * hash + Double.doubleToLongBits(p0.getZ());
+        hash = 31 * hash + Double.doubleToLongBits(dir.getX());
+        hash = 31 * hash + Double.doubleToLongBits(dir.getY());
+        hash = 31 * hash + Double.doubleToLongBits(dir.getZ());
+        return ROULETTE_SAMPLER.forPixel((int) hash, (int) (hash >>> 32));
     }
 
     /**
@@ -142,8 +233,13 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest point
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> geoPoints = _scene.geometries.findGeoIntersections(ray);
-        return ray.getClosestGeoPoint(geoPoints);
+        RenderStats stats = _stats;
+        if (stats == null || !stats.isDetailed())
+            return _scene.geometries.findClosestGeoIntersection(ray);
+        long start = System.nanoTime();
+        GeoPoint geoPoint = _scene.geometries.findClosestGeoIntersection(ray);
+        stats.addTraversalTime(System.nanoTime() - start);
+        return geoPoint;
     }
 
 
@@ -159,7 +255,7 @@ public class RayTracerBasic extends RayTracerBase {
         //direction vector of the ray
         Vector v = ray.get_dir();
         //normal to geometry of the point
-        Vector n = point.geometry.getNormal(point.point);
+        Vector n = point.getNormal();
         //check if normal to the geometry is orthogonal to ray
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0) return Color.BLACK; //then no color
@@ -168,39 +264,23 @@ public class RayTracerBasic extends RayTracerBase {
         double ks = point.geometry.getMaterial()._ks;
         Color color = Color.BLACK;
         //get color given by every light source
-        if (isSoftShadows) {
-            for (LightSource lightSource : _scene.lights) {
-                Color color1 = new Color(0, 0, 0);
-                for (Vector l : lightSource.getListL(point.point)) {
-                    double nl = alignZero(n.dotProduct(l));
-                    if (nl * nv > 0) { // sign(nl) == sign(nv)
-                        //get transparency of the object
-                        double ktr = transparency(lightSource, l, n, point);
-                        if (ktr * k > MIN_CALC_COLOR_K) { //check if the depth of calculation was reached then don't calculate any more
-                            // color is scaled by transparency to get the right color effect
-                            Color lightIntensity = lightSource.getIntensity(point.point).scale(ktr);
-                            //get effects of the color and add them to the color
-                            color1 = color1.add(calcDiffusive(kd, l, n, lightIntensity),
-                                    calcSpecular(ks, l, n, v, nShininess, lightIntensity));
-                        }
-                    }
-                }
-                color = color.add(color1.reduce(lightSource.getListL(point.point).size()));
+        for (LightSource lightSource : _scene.lights) {
+            double[] samples = isSoftShadows ? lightSource.getSamplePoints() : null;
+            if (samples != null) {
+                color = color.add(calcSoftLightEffects(lightSource, samples, point, v, n, nv, k, kd, ks, nShininess));
+                continue;
             }
-        } else {
-            for (LightSource lightSource : _scene.lights) {
-                Vector l = lightSource.getL(point.point);
-                double nl = alignZero(n.dotProduct(l));
-                if (nl * nv > 0) { // sign(nl) == sign(nv)
-                    //get transparency of the object
-                    double ktr = transparency(lightSource, l, n, point);
-                    if (ktr * k > MIN_CALC_COLOR_K) { //check if the depth of calculation was reached then don't calculate any more
-                        // color is scaled by transparency to get the right color effect
-                        Color lightIntensity = lightSource.getIntensity(point.point).scale(ktr);
-                        //get effects of the color and add them to the color
-                        color = color.add(calcDiffusive(kd, l, n, lightIntensity),
-                                calcSpecular(ks, l, n, v, nShininess, lightIntensity));
-                    }
+            Vector l = lightSource.getL(point.getPoint());
+            double nl = alignZero(n.dotProduct(l));
+            if (nl * nv > 0) { // sign(nl) == sign(nv)
+                //get transparency of the object
+                double ktr = transparency(lightSource, l, n, point);
+                if (ktr * k > MIN_CALC_COLOR_K) { //check if the depth of calculation was reached then don't calculate any more
+                    // color is scaled by transparency to get the right color effect
+                    Color lightIntensity = lightSource.getIntensity(point.getPoint()).scale(ktr);
+                    //get effects of the color and add them to the color
+                    color = color.add(calcDiffusive(kd, l, n, lightIntensity),
+                            calcSpecular(ks, l, n, v, nShininess, lightIntensity));
                 }
             }
         }
@@ -209,6 +289,105 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
 
+    /**
+     * Calculate the color of the local effects of an area light: the diffusive and specular
+     * factors of every sample point of the light are summed as numbers and the intensity
+     * is scaled once by their average. With the adaptive sampling the probe points of the
+     * light (its outline seen from the point and its center) are traced first, the sample
+     * points are traced only if the probes do not agree
+     *
+     * @param lightSource the light
+     * @param samples sample points of the light as (x, y, z) triples
+     * @param point point calculated
+     * @param v direction of the ray entering to the point
+     * @param n normal to the geometry at the point
+     * @param nv dot product of the normal and the ray direction
+     * @param k attenuation of the ray
+     * @param kd diffusive ratio
+     * @param ks specular ratio
+     * @param nShininess shininess of the object
+     * @return local color effect of the light on the point
+     */
+    private Color calcSoftLightEffects(LightSource lightSource, double[] samples, GeoPoint point, Vector v, Vector n,
+                                       double nv, double k, double kd, double ks, double nShininess) {
+        Point3D p = point.getPoint();
+
+        //transparency shared by all the probes, NaN if they disagree
+        double probeKtr = Double.NaN;
+        double[] probes = _adaptiveSoftShadows ? lightSource.getProbePoints(p) : null;
+        if (probes != null && probes.length < samples.length) {
+            for (int i = 0; i < probes.length / 3; ++i) {
+                double ktr = probeTransparency(probes, i, n, nv, point);
+                if (ktr < 0) continue; //the probe is not on the side of the ray
+                if (Double.isNaN(probeKtr)) {
+                    probeKtr = ktr;
+                } else if (probeKtr != ktr) {
+                    probeKtr = Double.NaN;
+                    break;
+                }
+            }
+            //fully in the umbra
+            if (probeKtr * k <= MIN_CALC_COLOR_K)
+                return Color.BLACK;
+        }
+
+        double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double sum = 0;
+        for (int i = 0; i < samples.length; i += 3) {
+            //direction from the sample point of the light to the point
+            double lx = p.getX() - samples[i];
+            double ly = p.getY() - samples[i + 1];
+            double lz = p.getZ() - samples[i + 2];
+            double distance = Math.sqrt(lx * lx + ly * ly + lz * lz);
+            if (isZero(distance)) continue;
+            lx /= distance;
+            ly /= distance;
+            lz /= distance;
+            double nl = alignZero(nx * lx + ny * ly + nz * lz);
+            if (nl * nv > 0) { // sign(nl) == sign(nv)
+                //when the probes agree the point is fully lit or fully in the umbra
+                double ktr = Double.isNaN(probeKtr)
+                        ? transparency(new Vector(-lx, -ly, -lz), distance, n, point)
+                        : probeKtr;
+                if (ktr * k > MIN_CALC_COLOR_K) {
+                    //r = l - 2 * (l*n) * n
+                    double rx = lx - 2 * nl * nx;
+                    double ry = ly - 2 * nl * ny;
+                    double rz = lz - 2 * nl * nz;
+                    double vr = -(vx * rx + vy * ry + vz * rz);
+                    sum += ktr * (kd * Math.abs(nl) + ks * Math.pow(Math.max(0, vr), nShininess));
+                }
+            }
+        }
+        return sum == 0 ? Color.BLACK : lightSource.getIntensity(p).scale(sum / (samples.length / 3));
+    }
+
+    /**
+     * Calculate the transparency of the point towards a probe point of an area light
+     *
+     * @param probes probe points of the light as (x, y, z) triples
+     * @param index index of the probe point
+     * @param n normal to the geometry at the point
+     * @param nv dot product of the normal and the ray direction
+     * @param geopoint checked geo-point
+     * @return value of the transparency or -1 if the probe point is not on the side of the ray
+     */
+    private double probeTransparency(double[] probes, int index, Vector n, double nv, GeoPoint geopoint) {
+        Point3D p = geopoint.getPoint();
+        double lx = probes[3 * index] - p.getX();
+        double ly = probes[3 * index + 1] - p.getY();
+        double lz = probes[3 * index + 2] - p.getZ();
+        double distance = Math.sqrt(lx * lx + ly * ly + lz * lz);
+        if (isZero(distance))
+            return -1;
+        Vector lightDirection = new Vector(lx / distance, ly / distance, lz / distance);
+        // -(n * lightDirection) must have the sign of n * v
+        if (alignZero(n.dotProduct(lightDirection)) * nv >= 0)
+            return -1;
+        return transparency(lightDirection, distance, n, geopoint);
+    }
+
     /**
      * Calculate color of the diffusive effects of the light
      *
@@ -265,18 +444,37 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private double transparency(LightSource light, Vector l, Vector n, GeoPoint geopoint) {
         Vector lightDirection = l.scale(-1); // from point to light source
-        Ray lightRay = new Ray(geopoint.point, lightDirection, n);
-        double lightDistance = light.getDistance(geopoint.point);
-        var intersections = _scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null) return 1.0; //no intersection
-        double ktr = 1.0;
-        for (GeoPoint gp : intersections) {
-            if (alignZero(gp.point.distance(geopoint.point) - lightDistance) <= 0) {
-                ktr *= gp.geometry.getMaterial().kT;
-                if (ktr < MIN_CALC_COLOR_K) return 0.0;
+        return transparency(lightDirection, light.getDistance(geopoint.getPoint()), n, geopoint);
+    }
+
+    /**
+     * Calculate value of transparency of the point towards a point of light
+     *
+     * @param lightDirection point to light direction vector (normalized)
+     * @param lightDistance distance from the point to the light
+     * @param n normal vector (normalized)
+     * @param geopoint checked geo-point
+     * @return value of the transparency
+     */
+    private double transparency(Vector lightDirection, double lightDistance, Vector n, GeoPoint geopoint) {
+        Ray lightRay = new Ray(geopoint.getPoint(), lightDirection, n);
+        //only the geometries between the point and the light source are taken,
+        //the search stops at the first opaque one
+        RenderStats stats = _stats;
+        double ktr;
+        if (stats == null) {
+            ktr = _scene.geometries.findTransparency(lightRay, lightDistance);
+        } else {
+            stats.countShadowRay();
+            if (stats.isDetailed()) {
+                long start = System.nanoTime();
+                ktr = _scene.geometries.findTransparency(lightRay, lightDistance);
+                stats.addTraversalTime(System.nanoTime() - start);
+            } else {
+                ktr = _scene.geometries.findTransparency(lightRay, lightDistance);
             }
         }
-        return ktr;
+        return ktr < MIN_CALC_COLOR_K ? 0.0 : ktr;
     }
 
     /**
@@ -290,12 +488,12 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private boolean unshaded(LightSource light, Vector l, Vector n, GeoPoint geopoint) {
         Vector lightDirection = l.scale(-1); // from point to light source
-        Ray lightRay = new Ray(geopoint.point, lightDirection, n); // refactored ray head move
-        List<GeoPoint> intersections = _scene.geometries.findGeoIntersections(lightRay, light.getDistance(geopoint.point));
+        Ray lightRay = new Ray(geopoint.getPoint(), lightDirection, n); // refactored ray head move
+        List<GeoPoint> intersections = _scene.geometries.findGeoIntersections(lightRay, light.getDistance(geopoint.getPoint()));
         if (intersections != null) {
-            double lightDistance = light.getDistance(geopoint.point);
+            double lightDistance = light.getDistance(geopoint.getPoint());
             for (GeoPoint intersection : intersections) {
-                if (alignZero(intersection.point.distance(geopoint.point) - lightDistance) <= 0 && intersection.geometry.getMaterial().kT == 0){
+                if (alignZero(intersection.getPoint().distance(geopoint.getPoint()) - lightDistance) <= 0 && intersection.geometry.getMaterial().kT == 0){
                     return false;
                 }
             }
@@ -4,9 +4,16 @@ import elements.Camera;
 import jdk.jshell.spi.ExecutionControl;
 import primitives.Color;
 import primitives.ColoredRay;
+import primitives.CounterSampler;
 import primitives.Ray;
+import primitives.SamplePattern;
+import primitives.Sampler;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +23,11 @@ public class Render {
 
     private int _threads = 1;
     private final int SPARE_THREADS = 2;
+
+    /**
+     * Normal quantile of the 95% confidence interval of the statistical adaptive anti-aliasing
+     */
+    private static final double CONFIDENCE_Z = 1.96;
     private boolean _print = false;
 
     private Render(RenderBuilder renderBuilder) {
@@ -25,6 +37,19 @@ public class Render {
         this._M = renderBuilder._M;
         this._N = renderBuilder._N;
         this._depthAdaptive = renderBuilder._depthAdaptive;
+        this._tileSize = renderBuilder._tileSize;
+        this._tileOrder = renderBuilder._tileOrder;
+        this._sampler = renderBuilder._sampler;
+        this._samplePattern = renderBuilder._samplePattern;
+        this._detailedStats = renderBuilder._detailedStats;
+        this._costHeatmap = renderBuilder._costHeatmap;
+        this._timeBudget = renderBuilder._timeBudget;
+        this._targetVariance = renderBuilder._targetVariance;
+        this._maxPasses = renderBuilder._maxPasses;
+        this._previewInterval = renderBuilder._previewInterval;
+        this._adaptiveThreshold = renderBuilder._adaptiveThreshold;
+        this._minSamples = renderBuilder._minSamples;
+        this._maxSamples = renderBuilder._maxSamples;
     }
 
     /**
@@ -57,6 +82,90 @@ public class Render {
      */
     private int _depthAdaptive;
 
+    /**
+     * Size in pixels of the side of a tile handed to a rendering thread
+     */
+    private int _tileSize;
+
+    /**
+     * Order in which the tiles are rendered
+     */
+    private TileOrder _tileOrder;
+
+    /**
+     * Random values of the stochastic rays, every pixel gets its own sampler from it
+     */
+    private Sampler _sampler;
+
+    /**
+     * Pattern of the points of the stochastic rays in a pixel or on the aperture
+     */
+    private SamplePattern _samplePattern;
+
+    /**
+     * Are the traversal time and the intersection tests recorded in the statistics
+     */
+    private boolean _detailedStats;
+
+    /**
+     * Statistics of the last rendering, null before the first one
+     */
+    private RenderStats _stats;
+
+    /**
+     * Is the cost of every pixel recorded
+     */
+    private boolean _costHeatmap;
+
+    /**
+     * Cost of the pixels of the last rendering, null when it is not recorded
+     */
+    private CostHeatmap _heatmap;
+
+    /**
+     * Wall time budget of the progressive rendering (ms), 0 without deadline
+     */
+    private long _timeBudget;
+
+    /**
+     * Variance of the mean luminance of every pixel the progressive rendering stops at, 0 to ignore it
+     */
+    private double _targetVariance;
+
+    /**
+     * Max number of passes of the progressive rendering, 0 for N*M passes
+     */
+    private int _maxPasses;
+
+    /**
+     * Number of passes of the progressive rendering between two writings of the image, 0 to write it only at the end
+     */
+    private int _previewInterval;
+
+    /**
+     * Half width of the confidence interval of the statistical adaptive anti-aliasing (color units),
+     * 0 for the recursive subdivision of the pixel
+     */
+    private double _adaptiveThreshold;
+
+    /**
+     * Min number of samples of a pixel by the statistical adaptive anti-aliasing
+     */
+    private int _minSamples;
+
+    /**
+     * Max number of samples of a pixel by the statistical adaptive anti-aliasing, 0 for N*M samples
+     */
+    private int _maxSamples;
+
+    /**
+     * Rays traced from the camera for a pixel and depth of subdivision reached by the adaptive anti-aliasing
+     */
+    private static class PixelCost {
+        int rays;
+        int depth;
+    }
+
 
     //We made a real Build Pattern,here is it's implementation
 
@@ -71,6 +180,19 @@ public class Render {
         private int _N = 8;
         private int _M = 8;
         private int _depthAdaptive = 3;
+        private int _tileSize = 16;
+        private TileOrder _tileOrder = TileOrder.SCANLINE;
+        private Sampler _sampler = new CounterSampler(0);
+        private SamplePattern _samplePattern = SamplePattern.STRATIFIED;
+        private boolean _detailedStats = false;
+        private boolean _costHeatmap = false;
+        private long _timeBudget = 0;
+        private double _targetVariance = 0;
+        private int _maxPasses = 0;
+        private int _previewInterval = 0;
+        private double _adaptiveThreshold = 0;
+        private int _minSamples = 4;
+        private int _maxSamples = 0;
 
         public RenderBuilder setImageWriter(ImageWriter imageWriter) {
             this._imageWriter = imageWriter;
@@ -102,200 +224,465 @@ public class Render {
             return this;
         }
 
+        /**
+         * Set the size of the square tiles the multithreaded rendering hands to the threads
+         * @param tileSize side of a tile in pixels
+         * @return the builder itself
+         */
+        public RenderBuilder setTileSize(int tileSize) {
+            if (tileSize <= 0)
+                throw new IllegalArgumentException("Tile size must be positive");
+            this._tileSize = tileSize;
+            return this;
+        }
 
-        public Render build() {
-            return new Render(this);
+        /**
+         * Set the order in which the multithreaded rendering hands the tiles to the threads
+         * @param tileOrder the order
+         * @return the builder itself
+         */
+        public RenderBuilder setTileOrder(TileOrder tileOrder) {
+            this._tileOrder = tileOrder;
+            return this;
         }
 
-    }
+        /**
+         * Set the sampler of the stochastic rays (anti-aliasing and depth of field),
+         * the same sampler always renders the same image
+         * @param sampler the sampler
+         * @return the builder itself
+         */
+        public RenderBuilder setSampler(Sampler sampler) {
+            this._sampler = sampler;
+            return this;
+        }
 
-    /**
-     * Pixel is an internal helper class whose objects are associated with a Render object that
-     * they are generated in scope of. It is used for multithreading in the Renderer and for follow up
-     * its progress.<br/>
-     * There is a main follow up object and several secondary objects - one in each thread.
-     *
-     * @author Dan
-     */
-    private class Pixel {
-        private long _maxRows = 0;
-        private long _maxCols = 0;
-        private long _pixels = 0;
-        public volatile int row = 0;
-        public volatile int col = -1;
-        private long _counter = 0;
-        private int _percents = 0;
-        private long _nextCounter = 0;
+        /**
+         * Set the pattern of the N*M points of the stochastic rays (anti-aliasing and depth of field),
+         * low discrepancy patterns give the same noise with less rays than the stratified grid
+         * @param samplePattern the pattern
+         * @return the builder itself
+         */
+        public RenderBuilder setSamplePattern(SamplePattern samplePattern) {
+            this._samplePattern = samplePattern;
+            return this;
+        }
 
         /**
-         * The constructor for initializing the main follow up Pixel object
-         *
-         * @param maxRows the amount of pixel rows
-         * @param maxCols the amount of pixel columns
+         * Set the detailed statistics of the rendering: the time of the intersection queries and
+         * the intersection tests by type of geometry are recorded too, for the cost of a measure
+         * on every query
+         * @param detailedStats true to record the detailed statistics
+         * @return the builder itself
          */
-        public Pixel(int maxRows, int maxCols) {
-            _maxRows = maxRows;
-            _maxCols = maxCols;
-            _pixels = maxRows * maxCols;
-            _nextCounter = _pixels / 100;
-            if (Render.this._print) System.out.printf("\r %02d%%", _percents);
+        public RenderBuilder setDetailedStats(boolean detailedStats) {
+            this._detailedStats = detailedStats;
+            return this;
         }
 
         /**
-         * Default constructor for secondary Pixel objects
+         * Set the recording of the cost of every pixel (time, rays from the camera and depth of the
+         * adaptive anti-aliasing), written by {@link Render#writeToImage()} as false color images
+         * next to the image
+         * @param costHeatmap true to record the costs
+         * @return the builder itself
          */
-        public Pixel() {
+        public RenderBuilder setCostHeatmap(boolean costHeatmap) {
+            this._costHeatmap = costHeatmap;
+            return this;
         }
 
         /**
-         * Internal function for thread-safe manipulating of main follow up Pixel object - this function is
-         * critical section for all the threads, and main Pixel object data is the shared data of this critical
-         * section.<br/>
-         * The function provides next pixel number each call.
-         *
-         * @param target target secondary Pixel object to copy the row/column of the next pixel
-         * @return the progress percentage for follow up: if it is 0 - nothing to print, if it is -1 - the task is
-         * finished, any other value - the progress percentage (only when it changes)
+         * Set the wall time budget of the progressive rendering: no pass is started if it
+         * would end after the deadline (by the time of the previous pass)
+         * @param millis the budget in milliseconds, 0 without deadline
+         * @return the builder itself
          */
-        private synchronized int nextP(Pixel target) {
-            ++col;
-            ++_counter;
-            if (col < _maxCols) {
-                target.row = this.row;
-                target.col = this.col;
-                if (_counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
-            }
-            ++row;
-            if (row < _maxRows) {
-                col = 0;
-                if (_counter == _nextCounter) {
-                    ++_percents;
-                    _nextCounter = _pixels * (_percents + 1) / 100;
-                    return _percents;
-                }
-                return 0;
-            }
-            return -1;
+        public RenderBuilder setTimeBudget(long millis) {
+            if (millis < 0)
+                throw new IllegalArgumentException("Time budget must not be negative");
+            this._timeBudget = millis;
+            return this;
         }
 
         /**
-         * Public function for getting next pixel number into secondary Pixel object.
-         * The function prints also progress percentage in the console window.
-         *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return true if the work still in progress, -1 if it's done
+         * Set the quality target of the progressive rendering: it stops when the variance of the
+         * mean luminance of every pixel (in squared color units, the printed white is 255) is under it
+         * @param targetVariance the target variance, 0 to ignore it
+         * @return the builder itself
          */
-        public boolean nextPixel(Pixel target) {
-            int percent = nextP(target);
-            if (Render.this._print && percent > 0)
-                synchronized (this) {
-                    notifyAll();
-                }
-            if (percent >= 0)
-                return true;
-            if (Render.this._print)
-                synchronized (this) {
-                    notifyAll();
-                }
-            return false;
+        public RenderBuilder setTargetVariance(double targetVariance) {
+            if (targetVariance < 0)
+                throw new IllegalArgumentException("Target variance must not be negative");
+            this._targetVariance = targetVariance;
+            return this;
         }
 
         /**
-         * Debug print of progress percentage - must be run from the main thread
+         * Set the max number of passes (samples by pixel) of the progressive rendering
+         * @param maxPasses the max number of passes, 0 for the N*M samples of the anti-aliasing
+         * @return the builder itself
          */
-        public void print() {
-            if (Render.this._print)
-                while (this._percents < 100)
-                    try {
-                        synchronized (this) {
-                            wait();
-                        }
-                        System.out.printf("\r %02d%%", this._percents);
-                        System.out.flush();
-                    } catch (Exception e) {
-                    }
+        public RenderBuilder setMaxPasses(int maxPasses) {
+            if (maxPasses < 0)
+                throw new IllegalArgumentException("Max number of passes must not be negative");
+            this._maxPasses = maxPasses;
+            return this;
+        }
+
+        /**
+         * Set the publication of the intermediate images of the progressive rendering
+         * @param passes number of passes between two writings of the image, 0 to write it only by writeToImage
+         * @return the builder itself
+         */
+        public RenderBuilder setPreviewInterval(int passes) {
+            if (passes < 0)
+                throw new IllegalArgumentException("Preview interval must not be negative");
+            this._previewInterval = passes;
+            return this;
+        }
+
+        /**
+         * Set the statistical adaptive anti-aliasing: the samples of a pixel are added until the 95%
+         * confidence interval of the mean of every color component is within the threshold, so the
+         * flat pixels get the min number of samples and the edges up to the max number.
+         * A higher threshold renders faster with more noise
+         * @param threshold half width of the confidence interval (the printed white is 255),
+         *                  0 for the recursive subdivision of the pixel
+         * @return the builder itself
+         */
+        public RenderBuilder setAdaptiveThreshold(double threshold) {
+            if (threshold < 0)
+                throw new IllegalArgumentException("Adaptive threshold must not be negative");
+            this._adaptiveThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Set the bounds of the number of samples of a pixel by the statistical adaptive anti-aliasing
+         * @param minSamples min number of samples, at least 2 to estimate the variance
+         * @param maxSamples max number of samples, 0 for the N*M samples of the anti-aliasing
+         * @return the builder itself
+         */
+        public RenderBuilder setAdaptiveSamples(int minSamples, int maxSamples) {
+            if (minSamples < 2)
+                throw new IllegalArgumentException("Min number of samples must be at least 2");
+            if (maxSamples != 0 && maxSamples < minSamples)
+                throw new IllegalArgumentException("Max number of samples must not be under the min number");
+            this._minSamples = minSamples;
+            this._maxSamples = maxSamples;
+            return this;
+        }
+
+        public Render build() {
+            return new Render(this);
+        }
+
+    }
+
+    /**
+     * Rendering of a pixel of the image
+     */
+    @FunctionalInterface
+    private interface PixelAction {
+        /**
+         * Render a pixel
+         * @param col column of the pixel
+         * @param row row of the pixel
+         */
+        void render(int col, int row);
+    }
+
+    /**
+     * Rendering of the whole image
+     */
+    @FunctionalInterface
+    private interface RenderAction {
+        /**
+         * Render the image
+         * @throws ExecutionControl.NotImplementedException if improvement not implemented
+         */
+        void render() throws ExecutionControl.NotImplementedException;
+    }
+
+    /**
+     * Task rendering a range of tiles of the ordered tile list: the range is split in two halves
+     * until a single tile remains, so idle threads of the pool steal the untouched halves
+     */
+    private class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<int[]> _tiles;
+        private final int _from;
+        private final int _to;
+        private final PixelAction _action;
+        private final AtomicInteger _done;
+
+        /**
+         * Constructor of the task
+         *
+         * @param tiles  the ordered tiles as {column, row} pairs
+         * @param from   first tile of the range (included)
+         * @param to     last tile of the range (excluded)
+         * @param action rendering of a pixel
+         * @param done   counter of the rendered pixels
+         */
+        TileTask(List<int[]> tiles, int from, int to, PixelAction action, AtomicInteger done) {
+            _tiles = tiles;
+            _from = from;
+            _to = to;
+            _action = action;
+            _done = done;
+        }
+
+        @Override
+        protected void compute() {
+            if (_to - _from > 1) {
+                int middle = (_from + _to) >>> 1;
+                invokeAll(new TileTask(_tiles, _from, middle, _action, _done),
+                        new TileTask(_tiles, middle, _to, _action, _done));
+                return;
+            }
+            int[] tile = _tiles.get(_from);
+            int startCol = tile[0] * _tileSize;
+            int startRow = tile[1] * _tileSize;
+            int endCol = Math.min(startCol + _tileSize, _imageWriter.getNx());
+            int endRow = Math.min(startRow + _tileSize, _imageWriter.getNy());
+            for (int row = startRow; row < endRow; ++row)
+                for (int col = startCol; col < endCol; ++col)
+                    _action.render(col, row);
+            _done.addAndGet((endCol - startCol) * (endRow - startRow));
         }
     }
 
 
     /**
      * This function renders image's pixel color map from the scene included with
-     * the Renderer object
+     * the Renderer object. The image is cut in tiles that are rendered by a work-stealing pool
      * @param opt Option of rendering
      * @param isSoftShadows is rendering with soft shadows improvement
      */
     private void renderImage(Options opt, boolean isSoftShadows) {
         final int nX = _imageWriter.getNx();
         final int nY = _imageWriter.getNy();
+        final int pixels = nX * nY;
 
-        final Pixel thePixel = new Pixel(nY, nX);
-        // Generate threads
-        Thread[] threads = new Thread[_threads];
-        for (int i = _threads - 1; i >= 0; --i) {
-            threads[i] = new Thread(() -> {
-                Pixel pixel = new Pixel();
-                while (thePixel.nextPixel(pixel)){
-                    //construct ray for every pixel
-                    Ray myRay = _camera.constructRayThroughPixel(
-                            _imageWriter.getNx(),
-                            _imageWriter.getNy(),
-                            pixel.col,
-                            pixel.row);
-
-                    //Checks the option and renders according to this option
-                    if (opt == null || opt == Options.DEFAULT || opt == Options.SOFT_SHADOWS) {
-                        _imageWriter.writePixel(pixel.col, pixel.row, _rayTracer.traceRay(myRay, isSoftShadows));
-                    }
-                    else if (opt == Options.ADAPTIVE_ANTI_ALIASING){
-                        //Get the color of every pixel
-                        Color myColor = renderPixel(_imageWriter.getNx(), _imageWriter.getNy(), _depthAdaptive, myRay, isSoftShadows);
-                        //write the color on the image
-                        _imageWriter.writePixel(pixel.col, pixel.row, myColor);
-                    }
-                    else if (opt == Options.ANTI_ALIASING){
-                        if (_N == 0 || _M == 0)
-                            throw new MissingResourceException("You need to set the n*m value for the rays launching", RayTracerBase.class.getName(), "");
-
-                        List<Ray> myRays = _camera.constructRaysGridFromRay(_imageWriter.getNx(), _imageWriter.getNy(), _N, _M, myRay);
-                        Color myColor = new Color(0, 0, 0);
-                        for (Ray ray : myRays) {
-                            myColor = myColor.add(_rayTracer.traceRay(ray, isSoftShadows));
-                        }
-                        _imageWriter.writePixel(pixel.col, pixel.row, myColor.reduce(_N * _M));
+        List<int[]> tiles = _tileOrder.order((nX + _tileSize - 1) / _tileSize, (nY + _tileSize - 1) / _tileSize);
+        if (tiles.isEmpty())
+            return;
+
+        AtomicInteger done = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(_threads);
+        try {
+            ForkJoinTask<Void> task = pool.submit(new TileTask(tiles, 0, tiles.size(),
+                    (col, row) -> renderPixel(opt, isSoftShadows, col, row), done));
+
+            // Print percents on the console
+            if (_print) {
+                int percents = -1;
+                while (!task.isDone()) {
+                    int current = (int) (100L * done.get() / pixels);
+                    if (current != percents && current < 100) {
+                        percents = current;
+                        System.out.printf("\r %02d%%", percents);
+                        System.out.flush();
                     }
-                    else if (opt == Options.DEPTH_OF_FIELD){
-                        List<Ray> myRays = _camera.constructRaysGridFromCamera(_N, _M, myRay);
-                        Color myColor = new Color(0, 0, 0);
-                        for (Ray ray : myRays) {
-                            myColor = myColor.add(_rayTracer.traceRay(ray, isSoftShadows));
-                        }
-                        _imageWriter.writePixel(pixel.col, pixel.row, myColor.reduce(myRays.size()));
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
                     }
                 }
-            });
+            }
+
+            // Wait for all the tiles, a failure of a pixel is thrown again here
+            task.join();
+        } finally {
+            pool.shutdown();
         }
-        // Start threads
-        for (Thread thread : threads)
-            thread.start();
 
-        // Print percents on the console
-        thePixel.print();
+        if (_print)
+            System.out.print("\r100%");
+    }
+
+    /**
+     * Render the image progressively with anti-aliasing: every pass adds one sample to every
+     * pixel, at the next point of the sample pattern (HALTON and SOBOL spread the first points of
+     * a pixel well), and the image holds the mean of the samples after every pass.
+     * The rendering stops at the first of: the max number of passes, the time budget, or when the
+     * variance of the mean luminance of every pixel is under the target variance (from the second pass)
+     * @param isSoftShadows is rendering with soft shadows improvement
+     * @return the statistics of the rendering, with the number of passes
+     */
+    public RenderStats renderProgressive(boolean isSoftShadows) {
+        if (_imageWriter == null)
+            throw new MissingResourceException("You need to enter a image writer", ImageWriter.class.getName(), "");
+        if (_camera == null)
+            throw new MissingResourceException("You need to enter a camera", Camera.class.getName(), "");
+        if (_rayTracer == null)
+            throw new MissingResourceException("You need to enter a ray tracer", RayTracerBase.class.getName(), "");
+
+        try {
+            return record(() -> renderPasses(isSoftShadows));
+        } catch (ExecutionControl.NotImplementedException e) {
+            throw new IllegalStateException(e); //every pass is implemented
+        }
+    }
 
-        // Ensure all threads have finished
-        for (Thread thread : threads)
-            try {
-                thread.join();
-            } catch (Exception ignored) {
-            }
+    /**
+     * Render the passes of the progressive rendering
+     * @param isSoftShadows is rendering with soft shadows improvement
+     */
+    private void renderPasses(boolean isSoftShadows) {
+        final int nX = _imageWriter.getNx();
+        final int nY = _imageWriter.getNy();
+        final int maxPasses = _maxPasses > 0 ? _maxPasses : Math.max(1, _N * _M);
+        final long start = System.nanoTime();
+        final long deadline = start + _timeBudget * 1_000_000;
 
+        //running mean and sum of the squared deviations of the luminance of every pixel (Welford)
+        double[] means = new double[nX * nY];
+        double[] deviations = new double[nX * nY];
+        List<int[]> tiles = _tileOrder.order((nX + _tileSize - 1) / _tileSize, (nY + _tileSize - 1) / _tileSize);
+
+        ForkJoinPool pool = new ForkJoinPool(_threads);
+        int passes = 0;
+        try {
+            long passStart = start;
+            while (passes < maxPasses) {
+                final int pass = passes;
+                pool.invoke(new TileTask(tiles, 0, tiles.size(),
+                        (col, row) -> renderSample(pass, isSoftShadows, col, row, means, deviations), new AtomicInteger()));
+                ++passes;
+                _stats.setPasses(passes);
+                if (_previewInterval > 0 && passes % _previewInterval == 0 && passes < maxPasses)
+                    writeImage(false);
+                if (_print)
+                    System.out.printf("\r pass %d", passes);
+
+                long now = System.nanoTime();
+                if (_timeBudget > 0 && now + (now - passStart) > deadline)
+                    break; //the next pass would end after the deadline
+                passStart = now;
+                if (_targetVariance > 0 && passes > 1 && maxVariance(deviations, passes) <= _targetVariance)
+                    break;
+            }
+        } finally {
+            pool.shutdown();
+        }
         if (_print)
-            System.out.print("\r100%");
+            System.out.println();
+    }
+
+    /**
+     * Render a sample of a pixel for a pass of the progressive rendering and add it to the image
+     * @param pass number of the pass (from 0)
+     * @param isSoftShadows is rendering with soft shadows improvement
+     * @param col column of the pixel
+     * @param row row of the pixel
+     * @param means running means of the luminance of the pixels
+     * @param deviations sums of the squared deviations of the luminance of the pixels
+     */
+    private void renderSample(int pass, boolean isSoftShadows, int col, int row, double[] means, double[] deviations) {
+        long start = System.nanoTime();
+        double[] point = _samplePattern.generatePoint(pass, _sampler.forPixel(col, row));
+        Ray ray = _camera.constructRayThroughPixel(_imageWriter.getNx(), _imageWriter.getNy(),
+                col + point[0] - 0.5, row + point[1] - 0.5);
+        long generated = System.nanoTime();
+        Color color = _rayTracer.traceRay(ray, isSoftShadows);
+        long traced = System.nanoTime();
+
+        int samples = pass + 1;
+        _imageWriter.addSample(col, row, color, samples);
+        int index = row * _imageWriter.getNx() + col;
+        double luminance = color.getLuminance();
+        double delta = luminance - means[index];
+        means[index] += delta / samples;
+        deviations[index] += delta * (luminance - means[index]);
+        long written = System.nanoTime();
+        _stats.addPixel(generated - start, traced - generated, written - traced);
+        if (_heatmap != null)
+            _heatmap.record(col, row, _heatmap.getNanos(col, row) + written - start, samples, 0);
+    }
+
+    /**
+     * Get the largest variance of the mean luminance of the pixels
+     * @param deviations sums of the squared deviations of the luminance of the pixels
+     * @param samples number of samples of every pixel (at least 2)
+     * @return the largest variance
+     */
+    private static double maxVariance(double[] deviations, int samples) {
+        double max = 0;
+        for (double deviation : deviations)
+            max = Math.max(max, deviation);
+        //variance of a sample divided by the number of samples
+        return max / (samples - 1) / samples;
+    }
+
+    /**
+     * Render a single pixel according to the option and write it on the image,
+     * the times of the phases are recorded in the statistics
+     * @param opt Option of rendering
+     * @param isSoftShadows is rendering with soft shadows improvement
+     * @param col column of the pixel
+     * @param row row of the pixel
+     */
+    private void renderPixel(Options opt, boolean isSoftShadows, int col, int row) {
+        long start = System.nanoTime();
+        //construct ray for every pixel
+        Ray myRay = _camera.constructRayThroughPixel(
+                _imageWriter.getNx(),
+                _imageWriter.getNy(),
+                col,
+                row);
+
+        //rays of the pixel for the stochastic options
+        List<Ray> myRays = null;
+        if (opt == Options.ANTI_ALIASING) {
+            if (_N == 0 || _M == 0)
+                throw new MissingResourceException("You need to set the n*m value for the rays launching", RayTracerBase.class.getName(), "");
+            myRays = _camera.constructRaysGridFromRay(_imageWriter.getNx(), _imageWriter.getNy(), _N, _M, myRay, _samplePattern, _sampler.forPixel(col, row));
+        }
+        else if (opt == Options.DEPTH_OF_FIELD) {
+            myRays = _camera.constructRaysGridFromCamera(_N, _M, myRay, _samplePattern, _sampler.forPixel(col, row));
+        }
+        long generated = System.nanoTime();
+
+        //Checks the option and renders according to this option
+        Color myColor;
+        int rays;
+        int depth = 0;
+        if (opt == null || opt == Options.DEFAULT || opt == Options.SOFT_SHADOWS) {
+            myColor = _rayTracer.traceRay(myRay, isSoftShadows);
+            rays = 1;
+        }
+        else if (opt == Options.ADAPTIVE_ANTI_ALIASING) {
+            PixelCost cost = new PixelCost();
+            myColor = _adaptiveThreshold > 0
+                    ? renderPixelVariance(col, row, isSoftShadows, cost)
+                    : renderPixel(_imageWriter.getNx(), _imageWriter.getNy(), _depthAdaptive, myRay, isSoftShadows, cost);
+            rays = cost.rays;
+            depth = cost.depth;
+        }
+        else if (myRays != null) {
+            myColor = new Color(0, 0, 0);
+            for (Ray ray : myRays) {
+                myColor = myColor.add(_rayTracer.traceRay(ray, isSoftShadows));
+            }
+            myColor = myColor.reduce(opt == Options.ANTI_ALIASING ? _N * _M : myRays.size());
+            rays = myRays.size();
+        }
+        else {
+            return;
+        }
+        long traced = System.nanoTime();
+
+        _imageWriter.writePixel(col, row, myColor);
+        long written = System.nanoTime();
+        _stats.addPixel(generated - start, traced - generated, written - traced);
+        if (_heatmap != null)
+            _heatmap.record(col, row, written - start, rays, depth);
     }
 
     /**
@@ -335,9 +722,10 @@ public class Render {
      * Render the image by writing every pixel of the grid
      * @param opt1 first improvement option
      * @param opt2 second improvement option
+     * @return the statistics of the rendering
      * @throws ExecutionControl.NotImplementedException if improvement not implemented
      */
-    public void renderImage(Options opt1, Options opt2) throws ExecutionControl.NotImplementedException {
+    public RenderStats renderImage(Options opt1, Options opt2) throws ExecutionControl.NotImplementedException {
         if (_imageWriter == null)
             throw new MissingResourceException("You need to enter a image writer", ImageWriter.class.getName(), "");
         if (_camera == null)
@@ -345,9 +733,49 @@ public class Render {
         if (_rayTracer == null)
             throw new MissingResourceException("You need to enter a ray tracer", RayTracerBase.class.getName(), "");
 
+        return record(() -> render(opt1, opt2));
+    }
+
+    /**
+     * Run a rendering while recording its statistics and its flight recorder event
+     * @param action the rendering
+     * @return the statistics of the rendering
+     * @throws ExecutionControl.NotImplementedException if improvement not implemented
+     */
+    private RenderStats record(RenderAction action) throws ExecutionControl.NotImplementedException {
+        RenderStats stats = new RenderStats(_detailedStats);
+        _stats = stats;
+        _heatmap = _costHeatmap ? new CostHeatmap(_imageWriter.getNx(), _imageWriter.getNy()) : null;
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        _rayTracer.setStats(stats);
+        try {
+            action.render();
+        } finally {
+            _rayTracer.setStats(null);
+        }
+        stats.setWallTime(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(_imageWriter.getImageName(), stats);
+            event.commit();
+        }
+        if (_print)
+            System.out.println(System.lineSeparator() + stats);
+        return stats;
+    }
+
+    /**
+     * Render the image according to the improvement options
+     * @param opt1 first improvement option
+     * @param opt2 second improvement option
+     * @throws ExecutionControl.NotImplementedException if improvement not implemented
+     */
+    private void render(Options opt1, Options opt2) throws ExecutionControl.NotImplementedException {
         switch (opt1) {
             case DEFAULT:
-                defaultRender(false);
+                renderSequential(Options.DEFAULT, false);
                 break;
             case THREADS:
                 switch (opt2) {
@@ -360,36 +788,36 @@ public class Render {
                 break;
             case SOFT_SHADOWS:
                 switch (opt2) {
-                    case DEFAULT -> defaultRender(true);
+                    case DEFAULT -> renderSequential(Options.DEFAULT, true);
                     case THREADS -> renderImage(null, true);
-                    case ANTI_ALIASING -> renderImageWithAntialiasing(true);
+                    case ANTI_ALIASING -> renderSequential(Options.ANTI_ALIASING, true);
                     case DEPTH_OF_FIELD -> throw new ExecutionControl.NotImplementedException("Not implemented yet !!!");
-                    case ADAPTIVE_ANTI_ALIASING -> renderImageAdaptive(true);
+                    case ADAPTIVE_ANTI_ALIASING -> renderSequential(Options.ADAPTIVE_ANTI_ALIASING, true);
                 }
                 break;
             case ANTI_ALIASING:
                 switch (opt2) {
-                    case DEFAULT -> renderImageWithAntialiasing(false);
+                    case DEFAULT -> renderSequential(Options.ANTI_ALIASING, false);
                     case THREADS -> renderImage(Options.ANTI_ALIASING, true);
-                    case SOFT_SHADOWS -> renderImageWithAntialiasing(true);
+                    case SOFT_SHADOWS -> renderSequential(Options.ANTI_ALIASING, true);
                     case DEPTH_OF_FIELD -> throw new ExecutionControl.NotImplementedException("Not implemented yet !!!");
                     case ADAPTIVE_ANTI_ALIASING -> throw new IllegalArgumentException("Cannot render two types of anti-aliasing");
                 }
                 break;
             case DEPTH_OF_FIELD:
                 switch (opt2) {
-                    case DEFAULT -> renderImageWithDepthOfField(false);
+                    case DEFAULT -> renderSequential(Options.DEPTH_OF_FIELD, false);
                     case THREADS -> renderImage(Options.THREADS, false);
-                    case SOFT_SHADOWS -> renderImageWithDepthOfField(true);
+                    case SOFT_SHADOWS -> renderSequential(Options.DEPTH_OF_FIELD, true);
                     case ANTI_ALIASING, ADAPTIVE_ANTI_ALIASING -> throw new ExecutionControl.NotImplementedException("Not implemented yet !!!");
                 }
                 break;
             case ADAPTIVE_ANTI_ALIASING:
                 switch (opt2) {
-                    case DEFAULT -> renderImageAdaptive(false);
+                    case DEFAULT -> renderSequential(Options.ADAPTIVE_ANTI_ALIASING, false);
                     case THREADS -> renderImage(Options.ADAPTIVE_ANTI_ALIASING, false);
                     case ANTI_ALIASING -> throw new IllegalArgumentException("Cannot render two types of anti-aliasing");
-                    case SOFT_SHADOWS -> renderImageAdaptive(true);
+                    case SOFT_SHADOWS -> renderSequential(Options.ADAPTIVE_ANTI_ALIASING, true);
                     case DEPTH_OF_FIELD -> throw new ExecutionControl.NotImplementedException("Not implemented yet !!!");
                 }
                 break;
@@ -397,103 +825,62 @@ public class Render {
     }
 
     /**
-     * Render the image by writing every pixel of the grid
+     * Render the image in the current thread by writing every pixel of the grid row after row
+     * @param opt Option of rendering
      * @param isSoftShadows is rendering with soft shadows improvement
      */
-    private void defaultRender(boolean isSoftShadows) {
-        //Render every pixel of the image
+    private void renderSequential(Options opt, boolean isSoftShadows) {
         for (int i = 0; i < _imageWriter.getNy(); i++) {
             for (int j = 0; j < _imageWriter.getNx(); j++) {
-                //construct ray for every pixel
-                Ray myRay = _camera.constructRayThroughPixel(
-                        _imageWriter.getNx(),
-                        _imageWriter.getNy(),
-                        j,
-                        i);
-                //Get the color of every pixel
-                Color myColor = _rayTracer.traceRay(myRay, isSoftShadows);
-                //write the color on the image
-                _imageWriter.writePixel(j, i, myColor);
+                renderPixel(opt, isSoftShadows, j, i);
             }
         }
     }
 
 
     /**
-     * Render the image by writing every pixel by launching into it N*M rays to get the more closest color
-     * of the real image ,in order to avoid aliasing
-     * @param isSoftShadows is rendering with soft shadows improvement
-     */
-    private void renderImageWithAntialiasing(boolean isSoftShadows) {
-        if (_N == 0 || _M == 0)
-            throw new MissingResourceException("You need to set the n*m value for the rays launching", RayTracerBase.class.getName(), "");
-
-        for (int i = 0; i < _imageWriter.getNy(); i++) {
-            for (int j = 0; j < _imageWriter.getNx(); j++) {
-                Ray myRay = _camera.constructRayThroughPixel(
-                        _imageWriter.getNx(),
-                        _imageWriter.getNy(),
-                        j,
-                        i);
-                List<Ray> myRays = _camera.constructRaysGridFromRay(_imageWriter.getNx(), _imageWriter.getNy(), _N, _M, myRay);
-                Color myColor = new Color(0, 0, 0);
-                for (Ray ray : myRays) {
-                    myColor = myColor.add(_rayTracer.traceRay(ray, isSoftShadows));
-                }
-                _imageWriter.writePixel(j, i, myColor.reduce(_N * _M));
-            }
-        }
-    }
-
-    /**
-     * Render the image with implementation of the depth of field
+     * Render a pixel by the statistical adaptive anti-aliasing: the samples are taken at the
+     * successive points of the sample pattern, with the running mean and variance of every color
+     * component (Welford), until the confidence interval of every mean is within the threshold or
+     * the max number of samples is reached. The components are tested separately, as an edge
+     * between dark colors hardly changes the luminance
+     * @param col column of the pixel
+     * @param row row of the pixel
      * @param isSoftShadows is rendering with soft shadows improvement
+     * @param cost cost of the pixel, updated with the traced rays
+     * @return the color of the pixel
      */
-    private void renderImageWithDepthOfField(boolean isSoftShadows) {
-        for (int i = 0; i < _imageWriter.getNy(); i++) {
-            for (int j = 0; j < _imageWriter.getNx(); j++) {
-                Ray myRay = _camera.constructRayThroughPixel(
-                        _imageWriter.getNx(),
-                        _imageWriter.getNy(),
-                        j,
-                        i);
-                List<Ray> myRays = _camera.constructRaysGridFromCamera(_N, _M, myRay);
-                Color myColor = new Color(0, 0, 0);
-                for (Ray ray : myRays) {
-                    myColor = myColor.add(_rayTracer.traceRay(ray, isSoftShadows));
-                }
-                _imageWriter.writePixel(j, i, myColor.reduce(myRays.size()));
-            }
-        }
-    }
-
+    private Color renderPixelVariance(int col, int row, boolean isSoftShadows, PixelCost cost) {
+        final int nX = _imageWriter.getNx();
+        final int nY = _imageWriter.getNy();
+        final int maxSamples = _maxSamples > 0 ? _maxSamples : Math.max(_minSamples, _N * _M);
+        //the interval is within the threshold while the variance of the mean is under this bound
+        final double bound = _adaptiveThreshold * _adaptiveThreshold / (CONFIDENCE_Z * CONFIDENCE_Z);
 
+        double[] means = new double[3];
+        double[] deviations = new double[3];
+        int samples = 0;
+        boolean converged = false;
+        while (samples < maxSamples && !converged) {
+            double[] point = _samplePattern.generatePoint(samples, _sampler.forPixel(col, row));
+            Ray ray = _camera.constructRayThroughPixel(nX, nY, col + point[0] - 0.5, row + point[1] - 0.5);
+            Color color = _rayTracer.traceRay(ray, isSoftShadows);
+            ++samples;
 
-    /**
-     * Render the image by writing every pixel of the grid
-     * Use of AntiAliasing method that is shooting lots of beams in place of only one in the
-     * center of the pixel
-     * @param isSoftShadows is rendering with soft shadows improvement
-     */
-    private void renderImageAdaptive(boolean isSoftShadows) {
-        //Render every pixel of the image
-        for (int i = 0; i < _imageWriter.getNy(); i++) {
-            for (int j = 0; j < _imageWriter.getNx(); j++) {
-                //construct ray for every pixel
-                Ray myRay = _camera.constructRayThroughPixel(
-                        _imageWriter.getNx(),
-                        _imageWriter.getNy(),
-                        j,
-                        i);
-                //Get the color of every pixel
-                Color myColor = renderPixel(_imageWriter.getNx(), _imageWriter.getNy(), 3, myRay, isSoftShadows);
-                //write the color on the image
-                _imageWriter.writePixel(j, i, myColor);
+            double[] components = {color.getRed(), color.getGreen(), color.getBlue()};
+            converged = samples >= _minSamples;
+            for (int i = 0; i < 3; ++i) {
+                double delta = components[i] - means[i];
+                means[i] += delta / samples;
+                deviations[i] += delta * (components[i] - means[i]);
+                //variance of a sample divided by the number of samples
+                converged &= samples > 1 && deviations[i] / (samples - 1) / samples <= bound;
             }
         }
+        cost.rays += samples;
+        return new Color(means[0], means[1], means[2]);
     }
 
-
     /**
      * Render every pixel by calling recursive adaptive render function
      * @param nX nb of pixels in col
@@ -501,9 +888,10 @@ public class Render {
      * @param depth depth of recursion
      * @param firstRay first ray traced in center of the pixel
      * @param isSoftShadows is rendering with soft shadows improvement
+     * @param cost cost of the pixel, updated with the traced rays and the reached depth
      * @return the color of the pixel
      */
-    private Color renderPixel(double nX, double nY, int depth, Ray firstRay, boolean isSoftShadows) {
+    private Color renderPixel(double nX, double nY, int depth, Ray firstRay, boolean isSoftShadows, PixelCost cost) {
         List<Ray> myRays = _camera.construct5RaysFromRay(firstRay, nX, nY); //construct 5 rays into the pixel
         HashMap<Integer, ColoredRay> rays = new HashMap<>();
         int i = 0;
@@ -511,8 +899,9 @@ public class Render {
         for (Ray myRay : myRays) {
             rays.put(++i, new ColoredRay(myRay, _rayTracer.traceRay(myRay, isSoftShadows)));
         }
+        cost.rays += myRays.size();
         //render the pixel in recursive function
-        return renderPixelRecursive(rays, nX, nY, depth, isSoftShadows);
+        return renderPixelRecursive(rays, nX, nY, depth, isSoftShadows, cost);
     }
 
     /**
@@ -522,9 +911,10 @@ public class Render {
      * @param nY nb of pixels in row
      * @param depth recursion depth
      * @param isSoftShadows is rendering with soft shadows improvement
+     * @param cost cost of the pixel, updated with the traced rays and the reached depth
      * @return the color of the pixel
      */
-    private Color renderPixelRecursive(HashMap<Integer, ColoredRay> myRays, double nX, double nY, int depth, boolean isSoftShadows) {
+    private Color renderPixelRecursive(HashMap<Integer, ColoredRay> myRays, double nX, double nY, int depth, boolean isSoftShadows, PixelCost cost) {
         boolean flag = false;
         //get the center of the pixel ray
         ColoredRay mainRay = myRays.get(3);
@@ -539,6 +929,7 @@ public class Render {
                     Color tmpColor = tmpRay.getColor();
                     if (tmpRay.getColor() == null) {
                         tmpColor = _rayTracer.traceRay(tmpRay.getRay(), isSoftShadows);
+                        cost.rays++;
                         myRays.put(integer, new ColoredRay(tmpRay.getRay(), tmpColor));
                     }
                     if (!tmpColor.equals(mainColor)) {
@@ -547,6 +938,9 @@ public class Render {
                 }
             }
             if (flag) {
+                //4 rays for the under pixels and a ray in the center of each of them
+                cost.rays += 8;
+                cost.depth = Math.max(cost.depth, _depthAdaptive - depth + 1);
                 //Create a map of Colored rays for the 4 under pixels and send to recursion
                 List<ColoredRay> newRays = _camera.construct4RaysThroughPixel(myRays.get(3).getRay(), nX, nY).stream().map(
                         x -> new ColoredRay(x, _rayTracer.traceRay(x, isSoftShadows))
@@ -558,7 +952,7 @@ public class Render {
                 rays.put(3, new ColoredRay(tempCenter, _rayTracer.traceRay(tempCenter, isSoftShadows)));
                 rays.put(4, newRays.get(1));
                 rays.put(5, myRays.get(3));
-                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows));
+                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows, cost));
                 rays = new HashMap<>();
                 rays.put(1, newRays.get(0));
                 rays.put(2, myRays.get(2));
@@ -566,7 +960,7 @@ public class Render {
                 rays.put(3, new ColoredRay(tempCenter, _rayTracer.traceRay(tempCenter, isSoftShadows)));
                 rays.put(4, myRays.get(3));
                 rays.put(5, newRays.get(2));
-                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows));
+                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows, cost));
                 rays = new HashMap<>();
                 rays.put(1, newRays.get(1));
                 rays.put(2, myRays.get(3));
@@ -574,7 +968,7 @@ public class Render {
                 rays.put(3, new ColoredRay(tempCenter, _rayTracer.traceRay(tempCenter, isSoftShadows)));
                 rays.put(4, myRays.get(4));
                 rays.put(5, newRays.get(3));
-                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows));
+                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows, cost));
                 rays = new HashMap<>();
                 rays.put(1, myRays.get(3));
                 rays.put(2, newRays.get(2));
@@ -582,7 +976,7 @@ public class Render {
                 rays.put(3, new ColoredRay(tempCenter, _rayTracer.traceRay(tempCenter, isSoftShadows)));
                 rays.put(4, newRays.get(3));
                 rays.put(5, myRays.get(5));
-                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows));
+                mainColor = mainColor.add(renderPixelRecursive(rays, nX * 2, nY * 2, depth - 1, isSoftShadows, cost));
                 mainColor = mainColor.reduce(5);
             }
         }
@@ -609,12 +1003,50 @@ public class Render {
     }
 
     /**
-     * Write the image
+     * Write the image, its writing time is added to the statistics of the last rendering
      */
     public void writeToImage() {
         if (_imageWriter == null)
             throw new MissingResourceException("You need to enter a image writer", ImageWriter.class.getName(), "");
+        writeImage(true);
+    }
+
+    /**
+     * Write the image with its flight recorder event, its writing time is added to the statistics
+     * @param withHeatmap true to write the cost heatmap too, false for a preview of a rendering in progress
+     */
+    private void writeImage(boolean withHeatmap) {
+        ImageWriteEvent event = new ImageWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
         _imageWriter.writeToImage();
+        if (withHeatmap && _heatmap != null)
+            _heatmap.writeToImages(_imageWriter.getImageName());
+        if (_stats != null)
+            _stats.addImageWriteTime(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.image = _imageWriter.getImageName();
+            event.commit();
+        }
+    }
+
+    /**
+     * Get the statistics of the last rendering
+     *
+     * @return the statistics, null before the first rendering
+     */
+    public RenderStats getStats() {
+        return _stats;
+    }
+
+    /**
+     * Get the cost of the pixels of the last rendering
+     *
+     * @return the costs, null if they are not recorded
+     */
+    public CostHeatmap getCostHeatmap() {
+        return _heatmap;
     }
 
 }
@@ -0,0 +1,83 @@
+package renderer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of the rendering of an image, its duration is the rendering time
+ * and it holds the {@link RenderStats} of the rendering
+ *
+ * @author Hillel, Yona
+ */
+@Name("renderer.Render")
+@Label("Render")
+@Category("Ray Tracer")
+@Description("Rendering of an image")
+class RenderEvent extends Event {
+
+    @Label("Image")
+    String image;
+
+    @Label("Pixels")
+    long pixels;
+
+    @Label("Primary Rays")
+    long primaryRays;
+
+    @Label("Shadow Rays")
+    long shadowRays;
+
+    @Label("Reflection Rays")
+    long reflectionRays;
+
+    @Label("Refraction Rays")
+    long refractionRays;
+
+    @Label("Intersection Tests")
+    @Description("Intersection tests with the geometries, 0 without the detailed statistics")
+    long intersectionTests;
+
+    @Label("Ray Generation")
+    @Timespan
+    long rayGeneration;
+
+    @Label("Traversal")
+    @Timespan
+    long traversal;
+
+    @Label("Shading")
+    @Timespan
+    long shading;
+
+    @Label("Pixel Write")
+    @Timespan
+    long pixelWrite;
+
+    @Label("Rays per Second")
+    double raysPerSecond;
+
+    /**
+     * Fill the event with the statistics of the rendering
+     *
+     * @param image name of the image
+     * @param stats the statistics
+     */
+    void set(String image, RenderStats stats) {
+        this.image = image;
+        pixels = stats.getPixels();
+        primaryRays = stats.getPrimaryRays();
+        shadowRays = stats.getShadowRays();
+        reflectionRays = stats.getReflectionRays();
+        refractionRays = stats.getRefractionRays();
+        intersectionTests = stats.getIntersectionTestCount();
+        rayGeneration = stats.getPhaseTime(RenderStats.Phase.RAY_GENERATION);
+        traversal = stats.getPhaseTime(RenderStats.Phase.TRAVERSAL);
+        shading = stats.getPhaseTime(RenderStats.Phase.SHADING);
+        pixelWrite = stats.getPhaseTime(RenderStats.Phase.IMAGE_WRITE);
+        raysPerSecond = stats.getRaysPerSecond();
+    }
+}
@@ -0,0 +1,268 @@
+package renderer;
+
+import geometries.Intersectable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the rendering of an image: the rays traced by kind, the intersection tests by
+ * type of geometry and the time spent in every phase of the rendering. The counters are updated
+ * by all the rendering threads together.
+ * The traversal time and the intersection tests are recorded only by a detailed statistics
+ * (they cost a measure for every intersection query), otherwise the traversal is part of the shading
+ *
+ * @author Hillel, Yona
+ */
+public class RenderStats {
+
+    /**
+     * Phases of the rendering
+     */
+    public enum Phase {
+        /**
+         * Construction of the rays of the camera (the sub-pixel rays of the adaptive
+         * anti-aliasing are built while tracing and are part of the shading)
+         */
+        RAY_GENERATION,
+        /**
+         * Intersection queries of the rays with the scene, only with the detailed statistics
+         */
+        TRAVERSAL,
+        /**
+         * Tracing of the rays out of the traversal
+         */
+        SHADING,
+        /**
+         * Writing the pixels and the image file
+         */
+        IMAGE_WRITE
+    }
+
+    /**
+     * Are the traversal time and the intersection tests recorded
+     */
+    private final boolean _detailed;
+
+    private final LongAdder _pixels = new LongAdder();
+    private final LongAdder _primaryRays = new LongAdder();
+    private final LongAdder _shadowRays = new LongAdder();
+    private final LongAdder _reflectionRays = new LongAdder();
+    private final LongAdder _refractionRays = new LongAdder();
+
+    /**
+     * Intersection tests by type of geometry
+     */
+    private final Map<Class<?>, LongAdder> _intersectionTests = new ConcurrentHashMap<>();
+
+    /**
+     * Time of every phase (ns), the shading time holds the whole tracing time
+     */
+    private final LongAdder[] _phaseTimes = new LongAdder[Phase.values().length];
+
+    /**
+     * Wall time of the rendering (ns)
+     */
+    private volatile long _wallTime;
+
+    /**
+     * Number of passes over the image (1 out of the progressive rendering)
+     */
+    private volatile int _passes = 1;
+
+    /**
+     * Constructor
+     *
+     * @param detailed true to record the traversal time and the intersection tests
+     */
+    public RenderStats(boolean detailed) {
+        _detailed = detailed;
+        for (int i = 0; i < _phaseTimes.length; ++i)
+            _phaseTimes[i] = new LongAdder();
+    }
+
+    /**
+     * Are the traversal time and the intersection tests recorded
+     *
+     * @return true if they are
+     */
+    public boolean isDetailed() {
+        return _detailed;
+    }
+
+    void countPrimaryRay() {
+        _primaryRays.increment();
+    }
+
+    void countShadowRay() {
+        _shadowRays.increment();
+    }
+
+    void countReflectionRay() {
+        _reflectionRays.increment();
+    }
+
+    void countRefractionRay() {
+        _refractionRays.increment();
+    }
+
+    /**
+     * Count an intersection test of a ray with a geometry
+     *
+     * @param geometry the tested geometry
+     */
+    void countIntersectionTest(Intersectable geometry) {
+        _intersectionTests.computeIfAbsent(geometry.getClass(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Add the time of an intersection query
+     *
+     * @param nanos time of the query (ns)
+     */
+    void addTraversalTime(long nanos) {
+        _phaseTimes[Phase.TRAVERSAL.ordinal()].add(nanos);
+    }
+
+    /**
+     * Add a rendered pixel with the times of its phases
+     *
+     * @param generation time of the construction of its rays (ns)
+     * @param tracing    time of the tracing of its rays (ns)
+     * @param writing    time of the writing of its color (ns)
+     */
+    void addPixel(long generation, long tracing, long writing) {
+        _pixels.increment();
+        _phaseTimes[Phase.RAY_GENERATION.ordinal()].add(generation);
+        _phaseTimes[Phase.SHADING.ordinal()].add(tracing);
+        _phaseTimes[Phase.IMAGE_WRITE.ordinal()].add(writing);
+    }
+
+    /**
+     * Add the time of the writing of the image file
+     *
+     * @param nanos time of the writing (ns)
+     */
+    void addImageWriteTime(long nanos) {
+        _phaseTimes[Phase.IMAGE_WRITE.ordinal()].add(nanos);
+    }
+
+    void setWallTime(long nanos) {
+        _wallTime = nanos;
+    }
+
+    void setPasses(int passes) {
+        _passes = passes;
+    }
+
+    /**
+     * Get the number of rendered pixels, every pass of the progressive rendering counts the pixels again
+     *
+     * @return the number of pixels
+     */
+    public long getPixels() {
+        return _pixels.sum();
+    }
+
+    public int getPasses() {
+        return _passes;
+    }
+
+    public long getPrimaryRays() {
+        return _primaryRays.sum();
+    }
+
+    public long getShadowRays() {
+        return _shadowRays.sum();
+    }
+
+    public long getReflectionRays() {
+        return _reflectionRays.sum();
+    }
+
+    public long getRefractionRays() {
+        return _refractionRays.sum();
+    }
+
+    /**
+     * Get the number of rays of all the kinds
+     *
+     * @return the number of rays
+     */
+    public long getRays() {
+        return getPrimaryRays() + getShadowRays() + getReflectionRays() + getRefractionRays();
+    }
+
+    /**
+     * Get the intersection tests by type of geometry (empty without the detailed statistics)
+     *
+     * @return number of tests by simple name of the type
+     */
+    public Map<String, Long> getIntersectionTests() {
+        Map<String, Long> tests = new TreeMap<>();
+        _intersectionTests.forEach((type, count) -> tests.merge(type.getSimpleName(), count.sum(), Long::sum));
+        return tests;
+    }
+
+    /**
+     * Get the number of intersection tests with all the geometries
+     *
+     * @return the number of tests
+     */
+    public long getIntersectionTestCount() {
+        long count = 0;
+        for (LongAdder tests : _intersectionTests.values())
+            count += tests.sum();
+        return count;
+    }
+
+    /**
+     * Get the time spent in a phase, summed over all the rendering threads
+     *
+     * @param phase the phase
+     * @return the time (ns)
+     */
+    public long getPhaseTime(Phase phase) {
+        long time = _phaseTimes[phase.ordinal()].sum();
+        //the traversal is measured inside the tracing
+        return phase == Phase.SHADING ? time - _phaseTimes[Phase.TRAVERSAL.ordinal()].sum() : time;
+    }
+
+    /**
+     * Get the wall time of the rendering, without the writing of the image file
+     *
+     * @return the time (ns)
+     */
+    public long getWallTime() {
+        return _wallTime;
+    }
+
+    /**
+     * Get the throughput of the rendering
+     *
+     * @return number of rays of all the kinds traced in a second of wall time
+     */
+    public double getRaysPerSecond() {
+        long wallTime = _wallTime;
+        return wallTime == 0 ? 0 : getRays() * 1e9 / wallTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%d pixels (%d passes) in %.3f s, %.0f rays/s%n" +
+                        "rays: %d primary, %d shadow, %d reflection, %d refraction%n" +
+                        "phases (s): ray generation %.3f, traversal %s, shading %.3f, image write %.3f",
+                getPixels(), _passes, _wallTime / 1e9, getRaysPerSecond(),
+                getPrimaryRays(), getShadowRays(), getReflectionRays(), getRefractionRays(),
+                getPhaseTime(Phase.RAY_GENERATION) / 1e9,
+                _detailed ? String.format(Locale.ROOT, "%.3f", getPhaseTime(Phase.TRAVERSAL) / 1e9) : "n/a",
+                getPhaseTime(Phase.SHADING) / 1e9, getPhaseTime(Phase.IMAGE_WRITE) / 1e9));
+        if (_detailed)
+            builder.append(String.format("%nintersection tests: ")).append(getIntersectionTests());
+        return builder.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders in which the tiles of the image are handed to the rendering threads
+ */
+public enum TileOrder {
+
+    /**
+     * Row after row, from the top left corner
+     */
+    SCANLINE,
+
+    /**
+     * Along a Hilbert curve, consecutive tiles are always neighbours so a thread works
+     * on a compact region of the scene
+     */
+    HILBERT,
+
+    /**
+     * Ring after ring from the center of the image, the interesting part is rendered first
+     */
+    SPIRAL;
+
+    /**
+     * Get the tiles of a grid in this order
+     *
+     * @param cols number of tiles in a row
+     * @param rows number of tiles in a column
+     * @return the tiles as {column, row} pairs
+     */
+    public List<int[]> order(int cols, int rows) {
+        List<int[]> tiles = new ArrayList<>(cols * rows);
+        for (int row = 0; row < rows; ++row)
+            for (int col = 0; col < cols; ++col)
+                tiles.add(new int[]{col, row});
+
+        switch (this) {
+            case HILBERT -> {
+                int n = Integer.highestOneBit(Math.max(Math.max(cols, rows) - 1, 1)) << 1;
+                tiles.sort(Comparator.comparingLong(tile -> hilbertIndex(n, tile[0], tile[1])));
+            }
+            case SPIRAL -> {
+                double centerCol = (cols - 1) / 2d;
+                double centerRow = (rows - 1) / 2d;
+                tiles.sort(Comparator.<int[]>comparingDouble(
+                                tile -> Math.max(Math.abs(tile[0] - centerCol), Math.abs(tile[1] - centerRow)))
+                        .thenComparingDouble(tile -> Math.atan2(tile[1] - centerRow, tile[0] - centerCol)));
+            }
+            default -> {
+                //tiles are already row after row
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Get the distance of a cell along the Hilbert curve filling a n*n grid
+     *
+     * @param n   size of the grid (power of 2)
+     * @param col column of the cell
+     * @param row row of the cell
+     * @return the index of the cell on the curve
+     */
+    private static long hilbertIndex(int n, int col, int row) {
+        long index = 0;
+        for (int s = n / 2; s > 0; s /= 2) {
+            int rx = (col & s) > 0 ? 1 : 0;
+            int ry = (row & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            //rotate the quadrant so the curve stays continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    col = n - 1 - col;
+                    row = n - 1 - row;
+                }
+                int tmp = col;
+                col = row;
+                row = tmp;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,64 @@
+package renderer;
+
+/**
+ * Conversion of a color of the floating point framebuffer (components from 0 to 255 for the
+ * printed white, or more for the lights) to a displayable 8 bits RGB color
+ *
+ * @author Hillel, Yona
+ */
+@FunctionalInterface
+public interface ToneMapper {
+
+    /**
+     * Every component is truncated and clamped to 255 separately, the colors brighter than
+     * white lose their hue
+     */
+    ToneMapper CLAMP = (r, g, b) -> toRGB(r, g, b);
+
+    /**
+     * Convert a color
+     *
+     * @param r red component
+     * @param g green component
+     * @param b blue component
+     * @return the color as 0xRRGGBB
+     */
+    int map(float r, float g, float b);
+
+    /**
+     * Extended Reinhard operator on the luminance: the luminance L (1 for the printed white) is
+     * compressed to L (1 + L / white^2) / (1 + L), so the bright colors keep their hue and the
+     * luminance white is mapped to the printed white
+     *
+     * @param white the smallest luminance mapped to the printed white (1 for the printed white itself)
+     * @return the tone mapper
+     * @throws IllegalArgumentException if the white luminance is not positive
+     */
+    static ToneMapper reinhard(double white) {
+        if (!(white > 0))
+            throw new IllegalArgumentException("The white luminance must be positive");
+        double white2 = white * white;
+        return (r, g, b) -> {
+            double luminance = (0.2126 * r + 0.7152 * g + 0.0722 * b) / 255;
+            if (luminance <= 0)
+                return 0;
+            double scale = (1 + luminance / white2) / (1 + luminance);
+            return toRGB(r * scale, g * scale, b * scale);
+        };
+    }
+
+    /**
+     * Pack the components of a color, truncated and clamped to 255
+     *
+     * @param r red component
+     * @param g green component
+     * @param b blue component
+     * @return the color as 0xRRGGBB
+     */
+    static int toRGB(double r, double g, double b) {
+        int ir = Math.min((int) r, 255);
+        int ig = Math.min((int) g, 255);
+        int ib = Math.min((int) b, 255);
+        return ir << 16 | ig << 8 | ib;
+    }
+}
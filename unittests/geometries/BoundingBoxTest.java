@@ -0,0 +1,80 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing bounding boxes
+ *
+ * @author Yona and Hillel
+ */
+class BoundingBoxTest {
+
+    /**
+     * Test method for {@link BoundingBox#isIntersecting(Ray, double)}.
+     */
+    @Test
+    void isIntersectingTest() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.isIntersecting(new Ray(new Point3D(-1, 0.5, 0.5), new Vector(1, 0.1, 0.1)), Double.POSITIVE_INFINITY),
+                "Ray must cross the box");
+
+        // TC02: Ray misses the box
+        assertFalse(box.isIntersecting(new Ray(new Point3D(-1, 0.5, 0.5), new Vector(1, 2, 0)), Double.POSITIVE_INFINITY),
+                "Ray must miss the box");
+
+        // TC03: Ray starts after the box
+        assertFalse(box.isIntersecting(new Ray(new Point3D(2, 0.5, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray must miss the box");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.isIntersecting(new Ray(new Point3D(0.5, 0.5, 0.5), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray must cross the box");
+
+        // TC05: Box is after the max distance
+        assertFalse(box.isIntersecting(new Ray(new Point3D(-5, 0.5, 0.5), new Vector(1, 0, 0)), 4),
+                "Ray must stop before the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to a face, outside of the box
+        assertFalse(box.isIntersecting(new Ray(new Point3D(-1, 2, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray must miss the box");
+
+        // TC12: Flat box of a polygon in an axis plane
+        BoundingBox flat = new Triangle(new Point3D(0, 0, -1), new Point3D(1, 0, -1), new Point3D(0, 1, -1)).getBoundingBox();
+        assertTrue(flat.isIntersecting(new Ray(new Point3D(0.2, 0.2, 0), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY),
+                "Ray must cross the flat box");
+    }
+
+    /**
+     * Test method for {@link Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void getBoundingBoxTest() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Bounded geometries have a box
+        assertNotNull(new Sphere(1, new Point3D(0, 0, 0)).getBoundingBox(), "Sphere must be bounded");
+        assertNotNull(new Cylinder(1, new Ray(new Point3D(0, 0, 0), new Vector(1, 1, 0)), 2).getBoundingBox(),
+                "Cylinder must be bounded");
+
+        // TC02: Infinite geometries are unbounded
+        assertNull(new Plane(new Point3D(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox(), "Plane must be unbounded");
+        assertNull(new Tube(1, new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(), "Tube must be unbounded");
+        assertNull(new Geometries(new Sphere(1, new Point3D(0, 0, 0)), new Plane(new Point3D(0, 0, 0), new Vector(0, 0, 1)))
+                .getBoundingBox(), "Geometries with a plane must be unbounded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Slanted cylinder's box holds the rims of its bases
+        Cylinder cylinder = new Cylinder(1, new Ray(new Point3D(0, 0, 0), new Vector(1, 1, 0)), 2);
+        Ray ray = new Ray(new Point3D(-5.69, 0.69, 5), new Vector(1, 0, -1));
+        assertTrue(cylinder.getBoundingBox().isIntersecting(ray, Double.POSITIVE_INFINITY), "Box must hold the base's rim");
+        assertNotNull(cylinder.findIntersections(ray), "Ray must cross the base");
+    }
+}
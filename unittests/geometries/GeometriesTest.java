@@ -1,10 +1,12 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,4 +56,115 @@ class GeometriesTest {
         assertEquals(4, result.size(), "Bad intersects");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Geometries#setBVH(boolean)}.
+     */
+    @Test
+    void bvhTest() {
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries().setBVH(true);
+        for (int i = 0; i < 10; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                Intersectable triangle = new Triangle(new Point3D(i, j, -5), new Point3D(i + 1, j, -5), new Point3D(i, j + 1, -5));
+                Intersectable sphere = new Sphere(0.3, new Point3D(i + 0.5, j + 0.5, -2));
+                linear.add(triangle, sphere);
+                bvh.add(triangle, sphere);
+            }
+        }
+        Intersectable plane = new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1));
+        linear.add(plane);
+        bvh.add(plane);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses a sphere, a triangle and the unbounded plane
+        Ray ray = new Ray(new Point3D(3.3, 4.3, 0), new Vector(0, 0, -1));
+        assertEquals(4, bvh.findGeoIntersections(ray).size(), "Bad intersects with hierarchy");
+        assertTrue(bvh.findGeoIntersections(ray).containsAll(linear.findGeoIntersections(ray)), "Hierarchy lost intersects");
+
+        // TC02: Ray crosses the grid on a slant
+        ray = new Ray(new Point3D(-1, -1, 1), new Vector(4, 3, -2));
+        assertEquals(linear.findGeoIntersections(ray).size(), bvh.findGeoIntersections(ray).size(), "Bad intersects with hierarchy");
+        assertTrue(bvh.findGeoIntersections(ray).containsAll(linear.findGeoIntersections(ray)), "Hierarchy lost intersects");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray misses all the boxes but hits the plane
+        ray = new Ray(new Point3D(20, 20, 0), new Vector(0, 0, -1));
+        assertEquals(1, bvh.findGeoIntersections(ray).size(), "Bad intersects with hierarchy");
+
+        // TC12: Max distance stops before the plane
+        ray = new Ray(new Point3D(3.3, 4.3, 0), new Vector(0, 0, -1));
+        assertEquals(3, bvh.findGeoIntersections(ray, 6).size(), "Bad intersects with hierarchy");
+
+        // TC13: Ray enters the box of a node without hitting its elements, the box of the
+        // other node is missed and its elements are never tested
+        Sphere left1 = new Sphere(0.3, new Point3D(0.5, 0.5, -5));
+        Sphere left2 = new Sphere(0.3, new Point3D(1.5, 0.5, -5));
+        Sphere right1 = new Sphere(0.3, new Point3D(10.5, 0.5, -5));
+        Sphere right2 = new Sphere(0.3, new Point3D(11.5, 0.5, -5));
+        List<Intersectable> tested = new ArrayList<>();
+        Geometries clusters = new Geometries(left1, left2, right1, right2).setBVH(true).setTestCounter(tested::add);
+        ray = new Ray(new Point3D(0.22, 0.22, 0), new Vector(0, 0, -1));
+        assertNull(clusters.findClosestGeoIntersection(ray), "Bad closest intersection with hierarchy");
+        assertFalse(tested.isEmpty(), "The node crossed by the ray is not visited");
+        assertFalse(tested.contains(right1) || tested.contains(right2), "The missed node is visited");
+    }
+
+    /**
+     * Test method for {@link Geometries#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void findClosestGeoIntersectionTest() {
+        Sphere near = new Sphere(1d, new Point3D(0, 0, -3));
+        Sphere far = new Sphere(1d, new Point3D(0, 0, -8));
+        Plane plane = new Plane(new Point3D(0, 0, -20), new Vector(0, 0, 1));
+        Geometries geos = new Geometries(plane, far, near);
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Closest of several geometries
+        Intersectable.GeoPoint closest = geos.findClosestGeoIntersection(ray);
+        assertEquals(near, closest.geometry, "Bad closest geometry");
+        assertEquals(new Point3D(0, 0, -2), closest.getPoint(), "Bad closest point");
+        assertEquals(2, closest.t, 1e-10, "Bad closest distance");
+
+        // TC02: Same result with the hierarchy
+        geos.setBVH(true);
+        closest = geos.findClosestGeoIntersection(ray);
+        assertEquals(new Point3D(0, 0, -2), closest.getPoint(), "Bad closest point with hierarchy");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No intersection before max distance
+        assertNull(geos.findClosestGeoIntersection(ray, 1.5), "Must not find an intersection");
+
+        // TC12: No intersection at all
+        assertNull(geos.findClosestGeoIntersection(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1))),
+                "Must not find an intersection");
+    }
+
+    /**
+     * Test method for {@link Geometries#findTransparency(Ray, double)}.
+     */
+    @Test
+    void findTransparencyTest() {
+        Geometry glass = new Sphere(1d, new Point3D(0, 0, -3)).setMaterial(new Material().setkT(0.5));
+        Geometry wall = new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1));
+        Geometries geos = new Geometries(glass, wall);
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Light before the opaque wall, the ray crosses the glass twice
+        assertEquals(0.25, geos.findTransparency(ray, 8), 1e-10, "Bad transparency through glass");
+
+        // TC02: Light after the opaque wall
+        assertEquals(0, geos.findTransparency(ray, 20), 1e-10, "Opaque wall must block the light");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Light before all the geometries
+        assertEquals(1, geos.findTransparency(ray, 1), 1e-10, "Nothing must block the light");
+
+        // TC12: Ray misses all the geometries
+        assertEquals(1, geos.findTransparency(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                1e-10, "Nothing must block the light");
+    }
+}
@@ -120,6 +120,13 @@ public class PolygonTests {
             assertEquals(List.of(new Point3D(-1, -1, 1)), pl.findIntersections(ray), errorPlane);
             assertNull(pol.findIntersections(ray), errorBad);
 
+            // TC07: Polygon of 3 vertices
+            Polygon tri = new Polygon(new Point3D(0, 0, 1), new Point3D(2, 0, 1), new Point3D(0, 2, 1));
+            ray = new Ray(new Point3D(0.5, 0.5, 0), new Vector(0, 0, 1));
+            assertEquals(List.of(new Point3D(0.5, 0.5, 1)), tri.findIntersections(ray), errorBad);
+            ray = new Ray(new Point3D(1.5, 1.5, 0), new Vector(0, 0, 1));
+            assertNull(tri.findIntersections(ray), errorBad);
+
             // =============== Boundary Values Tests ==================
             // TC04: In vertex
             ray = new Ray(new Point3D(0, 2, 0), new Vector(0, 0, 1));
@@ -95,11 +95,9 @@ class SphereTest {
 
         // TC16: Ray starts at the center (1 points)
 
-        try {
-            result = sphere.findIntersections(new Ray(new Point3D(1, 0, 0), new Vector(1, 0, 0)));
-            fail("Error when ray starts at center of sphere");
-        } catch (IllegalArgumentException exception) {
-        }
+        result = sphere.findIntersections(new Ray(new Point3D(1, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(List.of(new Point3D(2, 0, 0)), result, "Bad intersection point");
 
 
         // TC17: Ray starts at sphere and goes outside (0 points)
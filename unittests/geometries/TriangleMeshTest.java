@@ -0,0 +1,133 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static geometries.Intersectable.GeoPoint;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing TriangleMesh
+ *
+ * @author Yona and Hillel
+ */
+class TriangleMeshTest {
+
+    /**
+     * Square of side 2 in the plane z = 0 made of two triangles sharing the diagonal (0,0,0)-(2,2,0),
+     * with a third triangle in the plane z = 4 above it
+     */
+    private final TriangleMesh mesh = new TriangleMesh(new Point3D[]{
+            new Point3D(0, 0, 0), new Point3D(2, 0, 0), new Point3D(2, 2, 0), new Point3D(0, 2, 0),
+            new Point3D(0, 0, 4), new Point3D(2, 0, 4), new Point3D(0, 2, 4)},
+            0, 1, 2, //
+            0, 2, 3, //
+            4, 5, 6);
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(Point3D[], int...)}.
+     */
+    @Test
+    public void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(3, mesh.getFaceCount(), "Wrong number of triangles");
+
+        // TC02: Index out of range
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new Point3D[]{new Point3D(0, 0, 0), new Point3D(1, 0, 0), new Point3D(0, 1, 0)}, 0, 1, 3),
+                "Constructed a mesh with a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Triangle not complete
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new Point3D[]{new Point3D(0, 0, 0), new Point3D(1, 0, 0), new Point3D(0, 1, 0)}, 0, 1),
+                "Constructed a mesh with two indices");
+
+        // TC12: Unused missing vertex
+        assertEquals(1, new TriangleMesh(new Point3D[]{null, new Point3D(0, 0, 0), new Point3D(1, 0, 0), new Point3D(0, 1, 0)},
+                1, 2, 3).getFaceCount(), "Unused null vertex not allowed");
+
+        // TC13: Used missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new Point3D[]{null, new Point3D(0, 0, 0), new Point3D(1, 0, 0)}, 0, 1, 2),
+                "Constructed a mesh with a null vertex");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#getNormal(Point3D)}.
+     */
+    @Test
+    public void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point on a triangle
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point3D(0.5, 1.5, 0)), "Bad normal to mesh");
+
+        // TC02: Point out of the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point3D(3, 3, 0)), "Normal out of the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Normal of a hit, by its face
+        GeoPoint geoPoint = mesh.findClosestGeoIntersection(new Ray(new Point3D(1.5, 0.5, -1), new Vector(0, 0, 1)));
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(geoPoint), "Bad normal of the hit face");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersections(Ray, double)}.
+     */
+    @Test
+    public void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the square and the upper triangle
+        Ray ray = new Ray(new Point3D(0.5, 0.25, -1), new Vector(0, 0, 1));
+        List<Point3D> result = mesh.findIntersections(ray);
+        assertEquals(2, result.size(), "Wrong number of points");
+        assertTrue(result.contains(new Point3D(0.5, 0.25, 0)) && result.contains(new Point3D(0.5, 0.25, 4)),
+                "Wrong intersections");
+
+        // TC02: Closest intersection
+        GeoPoint closest = mesh.findClosestGeoIntersection(ray);
+        assertEquals(new Point3D(0.5, 0.25, 0), closest.getPoint(), "Wrong closest point");
+        assertEquals(1, closest.t, 1e-10, "Wrong distance of the closest point");
+        assertEquals(0.125, closest.u, 1e-10, "Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.125, closest.v, 1e-10, "Wrong barycentric coordinate of the third vertex");
+
+        // TC03: Ray missing the mesh
+        assertNull(mesh.findIntersections(new Ray(new Point3D(3, 3, -1), new Vector(0, 0, 1))), "Ray misses the mesh");
+
+        // TC04: Max distance before the upper triangle
+        assertEquals(1, mesh.findGeoIntersections(ray, 2).size(), "Point after the max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the shared edge of the square, the edges are part of the mesh
+        GeoPoint onEdge = mesh.findClosestGeoIntersection(new Ray(new Point3D(1, 1, -1), new Vector(0, 0, 1)));
+        assertEquals(new Point3D(1, 1, 0), onEdge.getPoint(), "Crack on the shared edge");
+
+        // TC12: Ray parallel to the square
+        assertNull(mesh.findIntersections(new Ray(new Point3D(-1, 1, 0), new Vector(1, 0, 0))), "Parallel ray");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findTransparency(Ray, double)}.
+     */
+    @Test
+    public void testFindTransparency() {
+        mesh.setMaterial(new Material().setkT(0.5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the square and the upper triangle
+        assertEquals(0.25, mesh.findTransparency(new Ray(new Point3D(0.5, 0.25, -1), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), 1e-10, "Wrong transparency of two crossings");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the shared edge of the square crosses it once
+        assertEquals(0.5, mesh.findTransparency(new Ray(new Point3D(1.5, 1.5, -1), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), 1e-10, "Shared edge crossed twice");
+
+        // TC12: Ray through the shared vertex of the square and of the upper triangle
+        assertEquals(0.25, mesh.findTransparency(new Ray(new Point3D(0, 0, -1), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), 1e-10, "Shared vertex crossed more than once");
+    }
+}
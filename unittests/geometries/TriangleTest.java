@@ -67,4 +67,28 @@ class TriangleTest {
         assertEquals(List.of(new Point3D(-0.5, 1.5, 0)), pl.findIntersections(ray), "Wrong intersection with plane");
         assertNull(tr.findIntersections(ray), "Bad intersection");
     }
+
+    /**
+     * Test method for {@link Triangle#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void findClosestGeoIntersection() {
+        Triangle tr = new Triangle(new Point3D(0, 0, 1), new Point3D(1, 0, 0), new Point3D(0, 1, 0));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Inside triangle, distance and barycentric coordinates of the hit
+        Intersectable.GeoPoint hit = tr.findClosestGeoIntersection(new Ray(new Point3D(0.5, 0.25, 1), new Vector(0, 0, -1)));
+        assertEquals(new Point3D(0.5, 0.25, 0.25), hit.getPoint(), "Bad intersection");
+        assertEquals(0.75, hit.t, 1e-10, "Bad distance of the intersection");
+        assertEquals(0.5, hit.u, 1e-10, "Bad barycentric coordinate of the second vertex");
+        assertEquals(0.25, hit.v, 1e-10, "Bad barycentric coordinate of the third vertex");
+
+        // TC02: Intersection after the max distance
+        assertNull(tr.findClosestGeoIntersection(new Ray(new Point3D(0.5, 0.25, 1), new Vector(0, 0, -1)), 0.5),
+                "Intersection after the max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starting on the triangle
+        assertNull(tr.findClosestGeoIntersection(new Ray(new Point3D(0.5, 0.25, 0.25), new Vector(0, 0, -1))),
+                "Intersection at the ray's head");
+    }
 }
\ No newline at end of file
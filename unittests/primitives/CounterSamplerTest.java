@@ -0,0 +1,41 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of CounterSampler
+ */
+class CounterSamplerTest {
+
+    @Test
+    void nextDouble() {
+        Sampler sampler = new CounterSampler(42);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Values are in [0, 1) and spread over the range
+        Sampler pixel = sampler.forPixel(3, 7);
+        double sum = 0;
+        for (int i = 0; i < 10000; ++i) {
+            double value = pixel.nextDouble();
+            assertTrue(value >= 0 && value < 1, "Value out of range");
+            sum += value;
+        }
+        assertEquals(0.5, sum / 10000, 0.02, "Wrong mean of the values");
+
+        // TC02: Same seed and same pixel give the same values
+        Sampler first = sampler.forPixel(3, 7);
+        Sampler second = new CounterSampler(42).forPixel(3, 7);
+        for (int i = 0; i < 100; ++i)
+            assertEquals(first.nextDouble(), second.nextDouble(), "Sequence of a pixel must be reproducible");
+
+        // TC03: Other pixel gives other values
+        assertNotEquals(sampler.forPixel(3, 7).nextDouble(), sampler.forPixel(7, 3).nextDouble(),
+                "Pixels must have different sequences");
+
+        // TC04: Other seed gives other values
+        assertNotEquals(sampler.forPixel(3, 7).nextDouble(), new CounterSampler(43).forPixel(3, 7).nextDouble(),
+                "Seeds must have different sequences");
+    }
+}
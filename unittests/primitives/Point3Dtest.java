@@ -20,4 +20,12 @@ class Point3Dtest {
         if (!new Vector(1, 1, 1).equals(result))
             fail("ERROR: Point - Point does not work correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddScaled() {
+        if (!new Point3D(3, 6, 9).equals(p1.add(new Vector(1, 2, 3), 2)))
+            fail("ERROR: Point + Vector * scale does not work correctly");
+        if (!Point3D.ZERO.equals(p1.add(new Vector(1, 2, 3), -1)))
+            fail("ERROR: Point + Vector * scale does not work correctly");
+    }
+}
@@ -1,10 +1,12 @@
 package primitives;
 
+import geometries.Sphere;
 import org.junit.jupiter.api.Test;
 
 import java.util.LinkedList;
 import java.util.List;
 
+import static geometries.Intersectable.GeoPoint;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -46,4 +48,21 @@ class RayTest {
         myList.add(new Point3D(2, 0, 0));
         assertEquals(myList.get(myList.size() - 1), r.findClosestPoint(myList), "Error ");
     }
+
+    @Test
+    void getClosestGeoPoint() {
+        Ray r = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1));
+        Sphere sphere = new Sphere(1, new Point3D(0, 0, 5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection by the distances held in the points
+        List<GeoPoint> intersections = sphere.findGeoIntersections(r);
+        assertEquals(4, intersections.get(0).t, 1e-10, "Bad distance of the first intersection");
+        assertEquals(6, intersections.get(1).t, 1e-10, "Bad distance of the second intersection");
+        assertEquals(new Point3D(0, 0, 4), r.getClosestGeoPoint(intersections).getPoint(), "Error ");
+
+        // =============== Boundary Values Tests ==================
+        //TC02: Null list
+        assertNull(r.getClosestGeoPoint(null), "Error !");
+    }
 }
\ No newline at end of file
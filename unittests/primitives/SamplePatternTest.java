@@ -0,0 +1,84 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of SamplePattern
+ */
+class SamplePatternTest {
+
+    @Test
+    void generate() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every pattern gives n*m points in the unit square
+        for (SamplePattern pattern : SamplePattern.values()) {
+            double[] points = pattern.generate(3, 5, new CounterSampler(1).forPixel(0, 0));
+            assertEquals(30, points.length, "Wrong number of points for " + pattern);
+            for (double value : points)
+                assertTrue(value >= 0 && value < 1, "Point out of the unit square for " + pattern);
+        }
+
+        // TC02: Stratified pattern has one point in every cell of the grid
+        assertOnePointByCell(SamplePattern.STRATIFIED.generate(4, 4, new CounterSampler(2).forPixel(1, 1)));
+
+        // TC03: Scrambled Sobol points are still stratified
+        assertOnePointByCell(SamplePattern.SOBOL.generate(4, 4, new CounterSampler(3).forPixel(1, 1)));
+
+        // TC04: Different pixels get different points
+        assertNotEquals(SamplePattern.HALTON.generate(2, 2, new CounterSampler(4).forPixel(0, 0))[0],
+                SamplePattern.HALTON.generate(2, 2, new CounterSampler(4).forPixel(0, 1))[0],
+                "Pixels must not share the same points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Blue noise points are never closer than half the spacing of a grid
+        double[] points = SamplePattern.BLUE_NOISE.generate(4, 4, new CounterSampler(5).forPixel(0, 0));
+        for (int a = 0; a < points.length; a += 2)
+            for (int b = a + 2; b < points.length; b += 2) {
+                double dx = Math.abs(points[a] - points[b]);
+                double dy = Math.abs(points[a + 1] - points[b + 1]);
+                dx = Math.min(dx, 1 - dx);
+                dy = Math.min(dy, 1 - dy);
+                assertTrue(Math.sqrt(dx * dx + dy * dy) > 0.125, "Blue noise points too close");
+            }
+    }
+
+    @Test
+    void generatePoint() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The progressive points of Halton are the points of the whole pattern
+        double[] points = SamplePattern.HALTON.generate(2, 3, new CounterSampler(6).forPixel(2, 1));
+        for (int k = 0; k < 6; ++k)
+            assertArrayEquals(new double[]{points[2 * k], points[2 * k + 1]},
+                    SamplePattern.HALTON.generatePoint(k, new CounterSampler(6).forPixel(2, 1)), 1e-15,
+                    "Progressive point differs from the pattern");
+
+        // TC02: The first 16 progressive points of Sobol are stratified
+        double[] progressive = new double[32];
+        for (int k = 0; k < 16; ++k)
+            System.arraycopy(SamplePattern.SOBOL.generatePoint(k, new CounterSampler(7).forPixel(0, 0)), 0,
+                    progressive, 2 * k, 2);
+        assertOnePointByCell(progressive);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Random patterns give different points for every index
+        assertNotEquals(SamplePattern.STRATIFIED.generatePoint(0, new CounterSampler(8).forPixel(0, 0))[0],
+                SamplePattern.STRATIFIED.generatePoint(1, new CounterSampler(8).forPixel(0, 0))[0],
+                "Two indices give the same point");
+    }
+
+    /**
+     * Check that 16 points are spread one in every cell of a 4*4 grid
+     *
+     * @param points the points
+     */
+    private void assertOnePointByCell(double[] points) {
+        boolean[] cells = new boolean[16];
+        for (int k = 0; k < points.length; k += 2) {
+            int cell = (int) (points[k + 1] * 4) * 4 + (int) (points[k] * 4);
+            assertFalse(cells[cell], "Two points in the same cell");
+            cells[cell] = true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package renderer;
+
+import jdk.jshell.spi.ExecutionControl;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the statistical adaptive anti-aliasing
+ *
+ * @author Hillel and Yona
+ */
+class AdaptiveSamplingTest {
+
+    /**
+     * Render a sphere on a flat background with the statistical adaptive anti-aliasing
+     *
+     * @param threshold half width of the confidence interval
+     * @param image     image of the rendering
+     * @return the cost of the pixels
+     * @throws ExecutionControl.NotImplementedException if improvement not implemented
+     */
+    private CostHeatmap render(double threshold, ImageWriter image) throws ExecutionControl.NotImplementedException {
+        Render render = SphereScene.builder("Adaptive scene", image)
+                .setSamplePattern(SamplePattern.HALTON)
+                .setAdaptiveThreshold(threshold)
+                .setAdaptiveSamples(4, 64)
+                .setCostHeatmap(true)
+                .build();
+        render.renderImage(Options.ADAPTIVE_ANTI_ALIASING, Options.THREADS);
+        return render.getCostHeatmap();
+    }
+
+    /**
+     * Test method for {@link Render.RenderBuilder#setAdaptiveThreshold(double)}.
+     */
+    @Test
+    void testAdaptiveThreshold() throws ExecutionControl.NotImplementedException {
+        ImageWriter image = new ImageWriter("adaptiveSampling", 10, 10);
+        CostHeatmap heatmap = render(1, image);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Flat pixels get the min number of samples
+        assertEquals(4, heatmap.getRays(0, 0), "Wrong samples of the background");
+        assertEquals(4, heatmap.getRays(5, 5), "Wrong samples inside the sphere");
+        assertEquals(255, image.readPixel(5, 5).getBlue(), 1e-3, "Wrong color inside the sphere");
+
+        // TC02: Pixel on the edge of the sphere gets the max number of samples
+        assertEquals(64, heatmap.getRays(6, 2), "Wrong samples on the edge");
+        double edge = image.readPixel(6, 2).getBlue();
+        assertTrue(edge > 0 && edge < 255, "The edge of the sphere is not averaged");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Threshold wider than the colors, every pixel gets the min number of samples
+        heatmap = render(1000, new ImageWriter("adaptiveSampling", 10, 10));
+        assertEquals(4, heatmap.getRays(6, 2), "Wrong samples with a wide threshold");
+
+        // TC12: Less than 2 samples cannot estimate the variance
+        assertThrows(IllegalArgumentException.class, () -> new Render.RenderBuilder().setAdaptiveSamples(1, 64),
+                "A single sample is accepted");
+    }
+}
@@ -0,0 +1,65 @@
+package renderer;
+
+import jdk.jshell.spi.ExecutionControl;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the cost heatmap of the rendering
+ *
+ * @author Hillel and Yona
+ */
+class CostHeatmapTest {
+
+    /**
+     * Test method for {@link CostHeatmap#toColor(double, double, double)}.
+     */
+    @Test
+    void testToColor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Cost inside the scale
+        assertEquals(new Color(0, 255, 0), CostHeatmap.toColor(6, 0, 10), "Bad color of a cost in the scale");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Cheapest cost
+        assertEquals(new Color(0, 0, 128), CostHeatmap.toColor(0, 0, 10), "Bad color of the cheapest cost");
+
+        // TC12: Cost over the scale
+        assertEquals(new Color(255, 0, 0), CostHeatmap.toColor(20, 0, 10), "Bad color of an expensive cost");
+
+        // TC13: All the costs are the same
+        assertEquals(new Color(0, 0, 128), CostHeatmap.toColor(3, 3, 3), "Bad color of a flat scale");
+    }
+
+    /**
+     * Test method for {@link Render.RenderBuilder#setCostHeatmap(boolean)}.
+     */
+    @Test
+    void testRecordCosts() throws ExecutionControl.NotImplementedException {
+        Render render = SphereScene.builder("Heatmap scene", new ImageWriter("costHeatmap", 10, 10))
+                .setDepthAdaptive(2)
+                .setCostHeatmap(true)
+                .build();
+        render.renderImage(Options.ADAPTIVE_ANTI_ALIASING, Options.DEFAULT);
+        CostHeatmap heatmap = render.getCostHeatmap();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Pixel out of the sphere, the 5 rays agree
+        assertEquals(5, heatmap.getRays(0, 0), "Wrong rays of a flat pixel");
+        assertEquals(0, heatmap.getDepth(0, 0), "A flat pixel is not subdivided");
+
+        // TC02: Pixel on the edge of the sphere is subdivided
+        int maxDepth = 0;
+        int maxRays = 0;
+        for (int row = 0; row < 10; ++row)
+            for (int col = 0; col < 10; ++col) {
+                maxDepth = Math.max(maxDepth, heatmap.getDepth(col, row));
+                maxRays = Math.max(maxRays, heatmap.getRays(col, row));
+                assertTrue(heatmap.getNanos(col, row) > 0, "Pixel not timed");
+            }
+        assertEquals(2, maxDepth, "The edge is subdivided to the max depth");
+        assertTrue(maxRays > 13, "Subdivided pixel traced more rays");
+    }
+}
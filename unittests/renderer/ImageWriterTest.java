@@ -3,6 +3,8 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 
 /**
  * Tests of the image writer
@@ -33,5 +35,38 @@ class ImageWriterTest {
         image.writeToImage();
     }
 
+    @Test
+    void toBufferedImage() {
+        ImageWriter image = new ImageWriter("Test HDR", 2, 1);
+        image.writePixel(0, 0, new Color(100.7, 510, 0));
+        image.writePixel(1, 0, new Color(1020, 1020, 1020));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The colors are kept without limit
+        assertEquals(510, image.readPixel(0, 0).getGreen(), 1e-3, "Color clamped in the framebuffer");
+
+        // TC02: Default tone mapping clamps every component
+        assertEquals(0x64FF00, image.toBufferedImage().getRGB(0, 0) & 0xFFFFFF, "Bad clamped color");
 
-}
\ No newline at end of file
+        // TC03: Exposure before the tone mapping
+        image.setExposure(-2);
+        assertEquals(0xFFFFFF, image.toBufferedImage().getRGB(1, 0) & 0xFFFFFF, "Bad exposed white");
+        assertEquals(0x197F00, image.toBufferedImage().getRGB(0, 0) & 0xFFFFFF, "Bad exposed color");
+
+        // TC04: Reinhard tone mapping keeps the hue of a bright color
+        image.setExposure(0).setToneMapper(ToneMapper.reinhard(4));
+        assertEquals(0xFFFFFF, image.toBufferedImage().getRGB(1, 0) & 0xFFFFFF, "The white luminance is not white");
+        image.writePixel(0, 0, new Color(300, 75, 0));
+        int rgb = image.toBufferedImage().getRGB(0, 0);
+        int red = rgb >> 16 & 0xFF;
+        int green = rgb >> 8 & 0xFF;
+        assertTrue(red < 255, "The bright red is clamped");
+        assertEquals(4, (double) red / green, 0.1, "The hue of the bright color is changed");
+        assertEquals(0, rgb & 0xFF, "Blue added to the bright color");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Reinhard tone mapping of black
+        image.writePixel(1, 0, new Color(0, 0, 0));
+        assertEquals(0, image.toBufferedImage().getRGB(1, 0) & 0xFFFFFF, "Black is not black");
+    }
+}
@@ -0,0 +1,66 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the progressive rendering
+ *
+ * @author Hillel and Yona
+ */
+class ProgressiveRenderTest {
+
+    /**
+     * Start the progressive rendering of the sphere scene
+     *
+     * @param image image of the rendering
+     * @return the builder of the rendering, with the progressive sample pattern
+     */
+    private Render.RenderBuilder builder(ImageWriter image) {
+        return SphereScene.builder("Progressive scene", image).setSamplePattern(SamplePattern.HALTON);
+    }
+
+    /**
+     * Test method for {@link Render#renderProgressive(boolean)}.
+     */
+    @Test
+    void testRenderProgressive() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Max number of passes, a sample by pixel in every pass
+        RenderStats stats = builder(new ImageWriter("progressive", 10, 10)).setMaxPasses(6)
+                .build().setMultithreading(2).renderProgressive(false);
+        assertEquals(6, stats.getPasses(), "Wrong number of passes");
+        assertEquals(600, stats.getPrimaryRays(), "Wrong number of samples");
+
+        // TC02: The mean of the samples is in the image
+        ImageWriter image = new ImageWriter("progressive", 10, 10);
+        assertEquals(0, builder(image).setMaxPasses(6).build().setMultithreading(2)
+                .renderProgressive(false).getShadowRays(), "No light in the scene");
+        assertEquals(255, image.readPixel(5, 5).getBlue(), 1e-3, "Wrong color inside the sphere");
+        double edge = image.readPixel(6, 2).getBlue();
+        assertTrue(edge > 0 && edge < 255, "The edge of the sphere is not averaged");
+
+        // TC03: Time budget
+        stats = builder(new ImageWriter("progressive", 10, 10)).setMaxPasses(1_000_000).setTimeBudget(300)
+                .build().setMultithreading(2).renderProgressive(false);
+        assertTrue(stats.getPasses() < 1_000_000, "The time budget is exceeded");
+        assertTrue(stats.getWallTime() < 600_000_000L, "The time budget is exceeded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Flat image reaches the target variance at the second pass
+        Scene empty = new Scene.SceneBuilder("Empty scene").build();
+        stats = new Render.RenderBuilder().setImageWriter(new ImageWriter("progressive", 10, 10))
+                .setCamera(SphereScene.camera()).setRayTracer(new RayTracerBasic(empty))
+                .setMaxPasses(100).setTargetVariance(0.01)
+                .build().renderProgressive(false);
+        assertEquals(2, stats.getPasses(), "A flat image converges at once");
+
+        // TC12: Variance target not reached on the edges
+        stats = builder(new ImageWriter("progressive", 10, 10)).setMaxPasses(8).setTargetVariance(1e-9)
+                .build().setMultithreading(2).renderProgressive(false);
+        assertEquals(8, stats.getPasses(), "The edges cannot converge");
+    }
+}
@@ -102,6 +102,52 @@ public class ReflectionRefractionTests {
         render.writeToImage();
     }
 
+    /**
+     * Produce the picture of the spheres on the mirrors with the Russian roulette on the secondary rays
+     */
+    @Test
+    public void twoSpheresOnMirrorsRussianRoulette() {
+        Camera camera = new Camera.CameraBuilder(new Point3D(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+                .setViewPlaneSize(2500, 2500).setDistance(10000)
+                .build(); //
+
+        scene = new Scene.SceneBuilder(scene).setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1))
+                .build();
+
+        scene.geometries.add( //
+                new Sphere(400, new Point3D(-950, -900, -1000)) //
+                        .setEmission(new Color(0, 0, 100)) //
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setnShininess(20).setkT(0.5)),
+                new Sphere(200, new Point3D(-950, -900, -1000)) //
+                        .setEmission(new Color(100, 20, 20)) //
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setnShininess(20)),
+                new Triangle(new Point3D(1500, -1500, -1500), new Point3D(-1500, 1500, -1500),
+                        new Point3D(670, 670, 3000)) //
+                        .setEmission(new Color(20, 20, 20)) //
+                        .setMaterial(new Material().setkR(1)),
+                new Triangle(new Point3D(1500, -1500, -1500), new Point3D(-1500, 1500, -1500),
+                        new Point3D(-1500, -1500, -2000)) //
+                        .setEmission(new Color(20, 20, 20)) //
+                        .setMaterial(new Material().setkR(0.5)));
+
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point3D(-750, -750, -150), new Vector(-1, -1, -4)) //
+                .setkL(0.00001).setkQ(0.000005));
+
+        ImageWriter imageWriter = new ImageWriter("reflectionTwoSpheresMirroredRoulette", 500, 500);
+        Render render = new Render.RenderBuilder() //
+                .setImageWriter(imageWriter) //
+                .setCamera(camera) //
+                .setRayTracer(new RayTracerBasic(scene).setRussianRoulette(0.25))
+                .build();
+
+        try {
+            render.renderImage(Options.DEFAULT, Options.DEFAULT);
+        } catch (ExecutionControl.NotImplementedException e) {
+            e.printStackTrace();
+        }
+        render.writeToImage();
+    }
+
     /**
      * Produce a picture of a two triangles lighted by a spot light with a partially
      * transparent Sphere producing partial shadow
@@ -0,0 +1,76 @@
+package renderer;
+
+import elements.*;
+import geometries.*;
+import jdk.jshell.spi.ExecutionControl;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the statistics of the rendering
+ *
+ * @author Hillel and Yona
+ */
+class RenderStatsTest {
+
+    /**
+     * Render a small image of a mirror sphere over a plane lit by a point light
+     *
+     * @param detailed   true for the detailed statistics
+     * @param threads    number of threads, 1 to render in the current thread
+     * @return the statistics of the rendering
+     */
+    private RenderStats render(boolean detailed, int threads) throws ExecutionControl.NotImplementedException {
+        Scene scene = new Scene.SceneBuilder("Stats scene").build();
+        scene.geometries.add(
+                new Sphere(50, new Point3D(0, 0, -100)).setEmission(new Color(java.awt.Color.BLUE))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setkR(0.5)),
+                new Plane(new Point3D(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point3D(0, 100, 0)));
+
+        Render render = new Render.RenderBuilder()
+                .setImageWriter(new ImageWriter("renderStats", 20, 20))
+                .setCamera(SphereScene.camera())
+                .setRayTracer(new RayTracerBasic(scene))
+                .setDetailedStats(detailed)
+                .build()
+                .setMultithreading(threads);
+        return threads == 1
+                ? render.renderImage(Options.DEFAULT, Options.DEFAULT)
+                : render.renderImage(Options.THREADS, Options.DEFAULT);
+    }
+
+    /**
+     * Test method for {@link Render#renderImage(Options, Options)}.
+     */
+    @Test
+    void testRenderStats() throws ExecutionControl.NotImplementedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rays counted by kind
+        RenderStats stats = render(false, 1);
+        assertEquals(400, stats.getPixels(), "Wrong number of pixels");
+        assertEquals(400, stats.getPrimaryRays(), "A primary ray for every pixel");
+        assertTrue(stats.getShadowRays() > 0, "No shadow ray counted");
+        assertTrue(stats.getReflectionRays() > 0, "No reflection ray counted");
+        assertEquals(0, stats.getRefractionRays(), "No transparent geometry");
+        assertEquals(stats.getPrimaryRays() + stats.getShadowRays() + stats.getReflectionRays(), stats.getRays(),
+                "Wrong total of rays");
+        assertTrue(stats.getWallTime() > 0 && stats.getRaysPerSecond() > 0, "No throughput");
+        assertTrue(stats.getIntersectionTests().isEmpty(), "Intersection tests counted without details");
+        assertEquals(0, stats.getPhaseTime(RenderStats.Phase.TRAVERSAL), "Traversal timed without details");
+
+        // TC02: Detailed statistics with threads count the same rays and the tests by type
+        RenderStats detailed = render(true, 3);
+        assertEquals(stats.getRays(), detailed.getRays(), "The threads changed the rays");
+        assertEquals(Set.of("Plane", "Sphere"), detailed.getIntersectionTests().keySet(),
+                "Wrong types of tested geometries");
+        assertTrue(detailed.getIntersectionTestCount() >= detailed.getRays(), "Every ray is tested at least once");
+        assertTrue(detailed.getPhaseTime(RenderStats.Phase.TRAVERSAL) > 0, "Traversal not timed");
+    }
+}
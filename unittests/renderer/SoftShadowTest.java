@@ -0,0 +1,70 @@
+package renderer;
+
+import elements.PointLight;
+import geometries.*;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the soft shadows of an area light, traced in full or adaptively
+ *
+ * @author Hillel and Yona
+ */
+class SoftShadowTest {
+
+    /**
+     * Ray down to a point of the floor far from the occluder, fully lit
+     */
+    private final Ray litRay = new Ray(new Point3D(50, 10, 0), new Vector(0, -1, 0));
+
+    /**
+     * Ray down to the point of the floor under the light
+     */
+    private final Ray underRay = new Ray(new Point3D(0, 10, 0), new Vector(0, -1, 0));
+
+    /**
+     * Build a floor lit by a horizontal disk light of radius 10 at a height of 100
+     *
+     * @param occluded true to add a small sphere hiding, from the point under the light, a part of
+     *                 the inside of the disk between its center and its rim
+     * @return the scene
+     */
+    private Scene scene(boolean occluded) {
+        Scene scene = new Scene.SceneBuilder("Soft shadow scene").build();
+        scene.geometries.add(new Plane(new Point3D(0, 0, 0), new Vector(0, 1, 0))
+                .setMaterial(new Material().setKd(0.5)));
+        if (occluded)
+            scene.geometries.add(new Sphere(1, new Point3D(2.5, 50, 0)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point3D(0, 100, 0), 10).setSampleCount(64));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#setAdaptiveSoftShadows(boolean)}.
+     */
+    @Test
+    void testAdaptiveSoftShadows() {
+        RayTracerBasic full = new RayTracerBasic(scene(true));
+        RayTracerBasic adaptive = new RayTracerBasic(scene(true)).setAdaptiveSoftShadows(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Fully lit point, the adaptive sampling gives the same color with the probes only
+        RenderStats fullStats = new RenderStats(false);
+        full.setStats(fullStats);
+        Color fullColor = full.traceRay(litRay, true);
+        RenderStats adaptiveStats = new RenderStats(false);
+        adaptive.setStats(adaptiveStats);
+        assertEquals(fullColor, adaptive.traceRay(litRay, true), "Wrong color of a lit point");
+        assertEquals(64, fullStats.getShadowRays(), "Every sample is traced in full");
+        assertTrue(adaptiveStats.getShadowRays() < 64, "The agreeing probes did not save the samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The default full sampling finds the occluder hiding only the inside of the light
+        double lit = new RayTracerBasic(scene(false)).traceRay(underRay, true).getRed();
+        double shadowed = full.traceRay(underRay, true).getRed();
+        assertTrue(shadowed < lit, "The occluder inside the light is missed");
+    }
+}
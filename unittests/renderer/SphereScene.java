@@ -0,0 +1,42 @@
+package renderer;
+
+import elements.Camera;
+import geometries.Sphere;
+import primitives.*;
+import scene.Scene;
+
+/**
+ * Small scene shared by the tests of the rendering: a blue sphere filling the middle of the view on
+ * a black background, without light, so every pixel is either flat or on the edge of the sphere
+ *
+ * @author Hillel and Yona
+ */
+class SphereScene {
+
+    /**
+     * The camera looking at the sphere, the view plane is 200x200 at a distance of 100
+     *
+     * @return the camera
+     */
+    static Camera camera() {
+        return new Camera.CameraBuilder(Point3D.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setDistance(100)
+                .build();
+    }
+
+    /**
+     * Start the rendering of the sphere
+     *
+     * @param name  name of the scene
+     * @param image image of the rendering
+     * @return the builder of the rendering, with the camera, the image and the tracer of the scene
+     */
+    static Render.RenderBuilder builder(String name, ImageWriter image) {
+        Scene scene = new Scene.SceneBuilder(name).build();
+        scene.geometries.add(new Sphere(50, new Point3D(0, 0, -100)).setEmission(new Color(java.awt.Color.BLUE)));
+        return new Render.RenderBuilder()
+                .setImageWriter(image)
+                .setCamera(camera())
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+}